@@ -19,6 +19,7 @@ package net.fabricmc.fabric.api.loot.v2;
 import org.jetbrains.annotations.Nullable;
 import net.fabricmc.fabric.api.event.Event;
 import net.fabricmc.fabric.api.event.EventFactory;
+import net.fabricmc.fabric.impl.loot.v2.LootInitializer;
 import net.minecraft.core.Registry;
 import net.minecraft.resources.ResourceKey;
 import net.minecraft.server.packs.resources.ResourceManager;
@@ -41,16 +42,22 @@ public final class LootTableEvents {
 	 * @deprecated Please use {@link net.fabricmc.fabric.api.loot.v3.LootTableEvents#REPLACE} instead.
 	 */
 	@Deprecated
-	public static final Event<Replace> REPLACE = EventFactory.createArrayBacked(Replace.class, listeners -> (key, original, source) -> {
-		for (Replace listener : listeners) {
-			@Nullable LootTable replaced = listener.replaceLootTable(key, original, source);
+	public static final Event<Replace> REPLACE = EventFactory.createArrayBacked(Replace.class, listeners -> {
+		if (listeners.length > 0) {
+			LootInitializer.forwardReplace();
+		}
+
+		return (key, original, source) -> {
+			for (Replace listener : listeners) {
+				@Nullable LootTable replaced = listener.replaceLootTable(key, original, source);
 
-			if (replaced != null) {
-				return replaced;
+				if (replaced != null) {
+					return replaced;
+				}
 			}
-		}
 
-		return null;
+			return null;
+		};
 	});
 
 	/**
@@ -90,10 +97,16 @@ public final class LootTableEvents {
 	 * @deprecated Please use {@link net.fabricmc.fabric.api.loot.v3.LootTableEvents#MODIFY} instead.
 	 */
 	@Deprecated
-	public static final Event<Modify> MODIFY = EventFactory.createArrayBacked(Modify.class, listeners -> (key, tableBuilder, source) -> {
-		for (Modify listener : listeners) {
-			listener.modifyLootTable(key, tableBuilder, source);
+	public static final Event<Modify> MODIFY = EventFactory.createArrayBacked(Modify.class, listeners -> {
+		if (listeners.length > 0) {
+			LootInitializer.forwardModify();
 		}
+
+		return (key, tableBuilder, source) -> {
+			for (Modify listener : listeners) {
+				listener.modifyLootTable(key, tableBuilder, source);
+			}
+		};
 	});
 
 	/**
@@ -16,19 +16,42 @@
 
 package net.fabricmc.fabric.impl.loot.v2;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import net.fabricmc.api.ModInitializer;
 import net.fabricmc.fabric.api.loot.v3.LootTableEvents;
 import net.fabricmc.fabric.api.loot.v3.LootTableSource;
 
 public class LootInitializer implements ModInitializer {
+	private static final AtomicBoolean REPLACE_FORWARDED = new AtomicBoolean();
+	private static final AtomicBoolean MODIFY_FORWARDED = new AtomicBoolean();
+
 	@Override
 	public void onInitialize() {
 		// Forward the events to the v2 API.
-		LootTableEvents.REPLACE.register(((key, original, source, registries) -> net.fabricmc.fabric.api.loot.v2.LootTableEvents.REPLACE.invoker().replaceLootTable(key, original, toV2Source(source))));
-		LootTableEvents.MODIFY.register((key, tableBuilder, source, registries) -> net.fabricmc.fabric.api.loot.v2.LootTableEvents.MODIFY.invoker().modifyLootTable(key, tableBuilder, toV2Source(source)));
+		// REPLACE and MODIFY are only forwarded once they have a v2 listener, as v2 listeners are never thread-safe and their forwarders
+		// would otherwise always prevent loot tables from being modified in parallel.
 		LootTableEvents.ALL_LOADED.register((resourceManager, lootRegistry) -> net.fabricmc.fabric.api.loot.v2.LootTableEvents.ALL_LOADED.invoker().onLootTablesLoaded(resourceManager, lootRegistry));
 	}
 
+	/**
+	 * Called when a listener is registered to the v2 {@link net.fabricmc.fabric.api.loot.v2.LootTableEvents#REPLACE} event.
+	 */
+	public static void forwardReplace() {
+		if (REPLACE_FORWARDED.compareAndSet(false, true)) {
+			LootTableEvents.REPLACE.register(((key, original, source, registries) -> net.fabricmc.fabric.api.loot.v2.LootTableEvents.REPLACE.invoker().replaceLootTable(key, original, toV2Source(source))));
+		}
+	}
+
+	/**
+	 * Called when a listener is registered to the v2 {@link net.fabricmc.fabric.api.loot.v2.LootTableEvents#MODIFY} event.
+	 */
+	public static void forwardModify() {
+		if (MODIFY_FORWARDED.compareAndSet(false, true)) {
+			LootTableEvents.MODIFY.register((key, tableBuilder, source, registries) -> net.fabricmc.fabric.api.loot.v2.LootTableEvents.MODIFY.invoker().modifyLootTable(key, tableBuilder, toV2Source(source)));
+		}
+	}
+
 	private static net.fabricmc.fabric.api.loot.v2.LootTableSource toV2Source(LootTableSource source) {
 		return switch (source) {
 		case VANILLA -> net.fabricmc.fabric.api.loot.v2.LootTableSource.VANILLA;
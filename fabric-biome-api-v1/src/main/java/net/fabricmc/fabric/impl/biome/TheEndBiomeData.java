@@ -160,10 +160,48 @@ public final class TheEndBiomeData {
 			int count = picker.getEntryCount();
 			if (count == 0 || (count == 1 && key.is(endHighlands::is))) return defaultValue;
 
+			return picker.pick(sampleColumn(((MultiNoiseSamplerHooks) (Object) noise).fabric_getEndBiomesSampler(), x, z));
+		}
+	}
+
+	/**
+	 * The last samples of each thread, one per column of a chunk section. Sections fill their biomes column by column with the height
+	 * in between, so a single last sample would almost never match.
+	 */
+	private static final ThreadLocal<ColumnSample[]> COLUMN_SAMPLES = ThreadLocal.withInitial(() -> {
+		ColumnSample[] samples = new ColumnSample[16];
+
+		for (int i = 0; i < samples.length; i++) {
+			samples[i] = new ColumnSample();
+		}
+
+		return samples;
+	});
+
+	/**
+	 * Samples the noise picking the replacement biomes of a column. The sample does not depend on the height, so it is reused for the
+	 * other positions of the same column in the section, and for the second pick of midlands and barrens replacements.
+	 */
+	private static double sampleColumn(ImprovedNoise sampler, int x, int z) {
+		ColumnSample sample = COLUMN_SAMPLES.get()[(x & 3) << 2 | (z & 3)];
+
+		if (sample.sampler != sampler || sample.x != x || sample.z != z) {
 			// The x and z of the entry are divided by 64 to ensure custom biomes are large enough; going larger than this
 			// seems to make custom biomes too hard to find.
-			return picker.pickFromNoise(((MultiNoiseSamplerHooks) (Object) noise).fabric_getEndBiomesSampler(), x / 64.0, 0, z / 64.0);
+			sample.value = sampler.noise(x / 64.0, 0, z / 64.0);
+			sample.sampler = sampler;
+			sample.x = x;
+			sample.z = z;
 		}
+
+		return sample.value;
+	}
+
+	private static final class ColumnSample {
+		private @Nullable ImprovedNoise sampler;
+		private int x;
+		private int z;
+		private double value;
 	}
 
 	enum RegistryKeyHashStrategy implements Hash.Strategy<Holder<?>> {
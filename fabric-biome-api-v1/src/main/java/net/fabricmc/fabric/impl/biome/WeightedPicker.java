@@ -22,13 +22,19 @@ import java.util.function.Function;
 import net.minecraft.util.Mth;
 import net.minecraft.world.level.levelgen.synth.ImprovedNoise;
 import com.google.common.base.Preconditions;
+import org.jetbrains.annotations.Nullable;
 
 /**
- * Picks entries with arbitrary double weights using a binary search.
+ * Picks entries with arbitrary double weights.
+ *
+ * <p>Picks go through a guide table over the upper weight bounds of the entries, which jumps to the entry of the bucket containing the
+ * target, leaving at most a few entries to step over. It picks exactly the entries a binary search over the bounds would, so that worlds
+ * keep generating the same biomes.
  */
 public final class WeightedPicker<T> {
 	private double currentTotal;
 	private final List<WeightedEntry<T>> entries;
+	private volatile @Nullable Index index;
 
 	WeightedPicker() {
 		this(0, new ArrayList<>());
@@ -43,6 +49,7 @@ public final class WeightedPicker<T> {
 		currentTotal += weight;
 
 		entries.add(new WeightedEntry<>(biome, weight, currentTotal));
+		index = null;
 	}
 
 	double getCurrentWeightTotal() {
@@ -54,9 +61,33 @@ public final class WeightedPicker<T> {
 	}
 
 	public T pickFromNoise(ImprovedNoise sampler, double x, double y, double z) {
-		double target = Mth.clamp(Math.abs(sampler.noise(x, y, z)), 0, 1) * getCurrentWeightTotal();
+		return pick(sampler.noise(x, y, z));
+	}
+
+	/**
+	 * Picks an entry from a noise value, of which the absolute value clamped to {@code [0, 1]} selects the entry.
+	 */
+	public T pick(double noise) {
+		double target = Mth.clamp(Math.abs(noise), 0, 1) * getCurrentWeightTotal();
+
+		return entries.get(getIndex().search(target)).entry();
+	}
+
+	private Index getIndex() {
+		Index ret = index;
 
-		return search(target).entry();
+		if (ret == null) {
+			double[] upperWeightBounds = new double[entries.size()];
+
+			for (int i = 0; i < upperWeightBounds.length; i++) {
+				upperWeightBounds[i] = entries.get(i).upperWeightBound();
+			}
+
+			ret = new Index(upperWeightBounds, currentTotal);
+			index = ret;
+		}
+
+		return ret;
 	}
 
 	/**
@@ -98,6 +129,52 @@ public final class WeightedPicker<T> {
 		return entries.get(low);
 	}
 
+	/**
+	 * The upper weight bounds of the entries, along with the first entry that may contain each of the equally sized buckets of the weight range.
+	 */
+	private static final class Index {
+		private final double[] upperWeightBounds;
+		private final int[] bucketStarts;
+		private final double bucketsPerWeight;
+
+		Index(double[] upperWeightBounds, double total) {
+			this.upperWeightBounds = upperWeightBounds;
+			this.bucketStarts = new int[Math.max(1, upperWeightBounds.length)];
+			this.bucketsPerWeight = total > 0 ? bucketStarts.length / total : 0;
+
+			int entry = 0;
+
+			for (int bucket = 0; bucket < bucketStarts.length; bucket++) {
+				double bucketStart = bucket / bucketsPerWeight;
+
+				while (entry < upperWeightBounds.length - 1 && bucketStart >= upperWeightBounds[entry]) {
+					entry++;
+				}
+
+				bucketStarts[bucket] = entry;
+			}
+		}
+
+		/**
+		 * Finds the first entry whose upper bound is above the target, or the last entry if there is none, like a binary search would.
+		 */
+		int search(double target) {
+			int last = upperWeightBounds.length - 1;
+			int entry = bucketStarts[Math.min((int) (target * bucketsPerWeight), bucketStarts.length - 1)];
+
+			while (entry < last && target >= upperWeightBounds[entry]) {
+				entry++;
+			}
+
+			// Guards against the bucket start being rounded past the target
+			while (entry > 0 && target < upperWeightBounds[entry - 1]) {
+				entry--;
+			}
+
+			return entry;
+		}
+	}
+
 	/**
 	 * Represents a modded entry in a list, and its corresponding weight.
 	 *
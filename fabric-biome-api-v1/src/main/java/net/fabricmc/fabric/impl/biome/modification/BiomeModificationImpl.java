@@ -28,12 +28,16 @@ import net.minecraft.world.level.biome.Biome;
 import net.neoforged.neoforge.common.world.BiomeModifier;
 import net.neoforged.neoforge.common.world.ModifiableBiomeInfo;
 import net.neoforged.neoforge.server.ServerLifecycleHooks;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
@@ -79,19 +83,80 @@ public class BiomeModificationImpl {
 		return modifiers;
 	}
 
-    public record FabricBiomeModifier(List<ModifierRecord> modifiers) implements BiomeModifier {
+    /**
+     * Applies the Fabric modifiers to each biome, through NeoForge's biome modifier phases.
+     *
+     * <p>The selectors of all modifiers are tested once per biome, the first time NeoForge asks to modify it, and the matching modifiers are
+     * kept in a bit set for the remaining phases. The selection context only reads the original biome, so the result is the same in every phase.
+     */
+    public static final class FabricBiomeModifier implements BiomeModifier {
+        private final List<ModifierRecord> modifiers;
+        /**
+         * The index of the first modifier of each {@link ModificationPhase}, plus the number of modifiers at the end.
+         */
+        private final int[] phaseStarts;
+        private final Map<ResourceKey<Biome>, BiomeSelection> selections = new HashMap<>();
+
+        public FabricBiomeModifier(List<ModifierRecord> modifiers) {
+            this.modifiers = List.copyOf(modifiers);
+            this.phaseStarts = new int[ModificationPhase.values().length + 1];
+
+            for (ModificationPhase modificationPhase : ModificationPhase.values()) {
+                int start = 0;
+
+                while (start < this.modifiers.size() && this.modifiers.get(start).phase.ordinal() < modificationPhase.ordinal()) {
+                    start++;
+                }
+
+                phaseStarts[modificationPhase.ordinal()] = start;
+            }
+
+            phaseStarts[ModificationPhase.values().length] = this.modifiers.size();
+        }
+
+        public List<ModifierRecord> modifiers() {
+            return modifiers;
+        }
+
         @Override
         public void modify(Holder<Biome> biome, Phase phase, ModifiableBiomeInfo.BiomeInfo.Builder builder) {
-            RegistryAccess.Frozen registryAccess = ServerLifecycleHooks.getCurrentServer().registryAccess();
+            ModificationPhase modificationPhase = getModificationPhase(phase);
             ResourceKey<Biome> key = biome.unwrapKey().orElseThrow();
-            BiomeSelectionContext selectionContext = new BiomeSelectionContextImpl(registryAccess, key, biome);
-            BiomeModificationContextImpl modificationContext = new BiomeModificationContextImpl(registryAccess, builder);
-            for (ModifierRecord modifier : this.modifiers) {
-                if (isInPhase(phase, modifier.phase) && modifier.selector.test(selectionContext)) {
+            BiomeSelection selection = selections.get(key);
+
+            if (selection == null || selection.builder() != builder) {
+                selection = select(key, biome, builder);
+                selections.put(key, selection);
+            }
+
+            if (modificationPhase != null) {
+                int end = phaseStarts[modificationPhase.ordinal() + 1];
+
+                for (int i = selection.modifiers().nextSetBit(phaseStarts[modificationPhase.ordinal()]); i >= 0 && i < end; i = selection.modifiers().nextSetBit(i + 1)) {
+                    ModifierRecord modifier = modifiers.get(i);
                     LOGGER.trace("Applying modifier {} to {}", modifier, key);
-                    modifier.apply(selectionContext, modificationContext);
+                    modifier.apply(selection.selectionContext(), selection.modificationContext());
                 }
             }
+
+            if (phase == Phase.AFTER_EVERYTHING) {
+                // This was the last phase for the biome
+                selections.remove(key);
+            }
+        }
+
+        private BiomeSelection select(ResourceKey<Biome> key, Holder<Biome> biome, ModifiableBiomeInfo.BiomeInfo.Builder builder) {
+            RegistryAccess.Frozen registryAccess = ServerLifecycleHooks.getCurrentServer().registryAccess();
+            BiomeSelectionContext selectionContext = new BiomeSelectionContextImpl(registryAccess, key, biome);
+            BitSet selected = new BitSet(modifiers.size());
+
+            for (int i = 0; i < modifiers.size(); i++) {
+                if (modifiers.get(i).selector.test(selectionContext)) {
+                    selected.set(i);
+                }
+            }
+
+            return new BiomeSelection(builder, selectionContext, new BiomeModificationContextImpl(registryAccess, builder), selected);
         }
 
         @Override
@@ -99,14 +164,21 @@ public class BiomeModificationImpl {
             return MapCodec.unit(this);
         }
 
-        private boolean isInPhase(Phase phase, ModificationPhase modificationPhase) {
-            return phase == Phase.ADD && modificationPhase == ModificationPhase.ADDITIONS
-                || phase == Phase.REMOVE && modificationPhase == ModificationPhase.REMOVALS
-                || phase == Phase.MODIFY && modificationPhase == ModificationPhase.REPLACEMENTS
-                || phase == Phase.AFTER_EVERYTHING && modificationPhase == ModificationPhase.POST_PROCESSING;
+        @Nullable
+        private static ModificationPhase getModificationPhase(Phase phase) {
+            return switch (phase) {
+                case ADD -> ModificationPhase.ADDITIONS;
+                case REMOVE -> ModificationPhase.REMOVALS;
+                case MODIFY -> ModificationPhase.REPLACEMENTS;
+                case AFTER_EVERYTHING -> ModificationPhase.POST_PROCESSING;
+                default -> null;
+            };
         }
     }
 
+    private record BiomeSelection(ModifiableBiomeInfo.BiomeInfo.Builder builder, BiomeSelectionContext selectionContext, BiomeModificationContextImpl modificationContext, BitSet modifiers) {
+    }
+
 	private static class ModifierRecord {
 		private final ModificationPhase phase;
 
@@ -16,6 +16,8 @@
 
 package net.fabricmc.fabric.impl.biome.modification;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import net.fabricmc.fabric.api.biome.v1.BiomeSelectionContext;
 import net.minecraft.core.Holder;
@@ -35,6 +37,8 @@ public class BiomeSelectionContextImpl implements BiomeSelectionContext {
 	private final ResourceKey<Biome> key;
 	private final Biome biome;
 	private final Holder<Biome> entry;
+	// Tested by many selectors, and each test goes through all possible biomes of the dimension
+	private final Map<ResourceKey<LevelStem>, Boolean> generatesIn = new HashMap<>();
 
 	public BiomeSelectionContextImpl(RegistryAccess dynamicRegistries, ResourceKey<Biome> key, Holder<Biome> biome) {
 		this.dynamicRegistries = dynamicRegistries;
@@ -89,6 +93,10 @@ public class BiomeSelectionContextImpl implements BiomeSelectionContext {
 
 	@Override
 	public boolean canGenerateIn(ResourceKey<LevelStem> dimensionKey) {
+		return generatesIn.computeIfAbsent(dimensionKey, this::computeCanGenerateIn);
+	}
+
+	private boolean computeCanGenerateIn(ResourceKey<LevelStem> dimensionKey) {
 		LevelStem dimension = dynamicRegistries.registryOrThrow(Registries.LEVEL_STEM).get(dimensionKey);
 
 		if (dimension == null) {
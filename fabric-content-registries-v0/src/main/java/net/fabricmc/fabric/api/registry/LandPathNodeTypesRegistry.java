@@ -38,6 +38,9 @@ import org.slf4j.LoggerFactory;
 public final class LandPathNodeTypesRegistry {
 	private static final Logger LOGGER = LoggerFactory.getLogger(LandPathNodeTypesRegistry.class);
 	private static final Map<Block, PathNodeTypeProvider> NODE_TYPES = new IdentityHashMap<>();
+	private static final PathType[] PATH_TYPES = PathType.values();
+	@Nullable
+	private static volatile StateTable stateTable = null;
 
 	private LandPathNodeTypesRegistry() {
 	}
@@ -75,6 +78,7 @@ public final class LandPathNodeTypesRegistry {
 
 		// Registers the provider.
 		PathNodeTypeProvider old = NODE_TYPES.put(block, provider);
+		stateTable = null;
 
 		if (old != null) {
 			LOGGER.debug("Replaced PathNodeType provider for the block {}", block);
@@ -98,6 +102,7 @@ public final class LandPathNodeTypesRegistry {
 
 		// Registers the provider.
 		PathNodeTypeProvider old = NODE_TYPES.put(block, provider);
+		stateTable = null;
 
 		if (old != null) {
 			LOGGER.debug("Replaced PathNodeType provider for the block {}", block);
@@ -124,6 +129,20 @@ public final class LandPathNodeTypesRegistry {
 		Objects.requireNonNull(world, "BlockView cannot be null!");
 		Objects.requireNonNull(pos, "BlockPos cannot be null!");
 
+		// Looks up the node type precomputed for the block state, if its provider is static.
+		int id = Block.BLOCK_STATE_REGISTRY.getId(state);
+		StateTable table = getStateTable(state, id);
+
+		if (table != null) {
+			byte nodeType = neighbor ? table.neighborNodeTypes()[id] : table.nodeTypes()[id];
+
+			if (nodeType == StateTable.NONE) {
+				return null;
+			} else if (nodeType >= 0) {
+				return PATH_TYPES[nodeType];
+			}
+		}
+
 		// Gets the node type provider for the block.
 		PathNodeTypeProvider provider = getPathNodeTypeProvider(state.getBlock());
 
@@ -139,6 +158,24 @@ public final class LandPathNodeTypesRegistry {
 		}
 	}
 
+	/**
+	 * Returns the table of precomputed node types, making sure it holds the block state at its raw id. The table is rebuilt if the state
+	 * is not where it expects, which happens when blocks were registered after the table was built, or when the raw ids were remapped.
+	 */
+	@Nullable
+	private static StateTable getStateTable(BlockState state, int id) {
+		StateTable table = stateTable;
+
+		if (table == null || !table.contains(id, state)) {
+			if (id < 0) return null;
+
+			table = StateTable.build();
+			stateTable = table;
+		}
+
+		return table.contains(id, state) ? table : null;
+	}
+
 	/**
 	 * Gets the raw {@link PathNodeTypeProvider} registered for the specified block.
 	 *
@@ -166,6 +203,56 @@ public final class LandPathNodeTypesRegistry {
 		return NODE_TYPES.get(block);
 	}
 
+	/**
+	 * The node types of all block states with a static provider, indexed by the raw id of the state.
+	 * Each entry is the ordinal of the node type, {@link #NONE} if there is no node type, or {@link #UNKNOWN} if the provider must be called.
+	 */
+	private record StateTable(BlockState[] states, byte[] nodeTypes, byte[] neighborNodeTypes) {
+		static final byte NONE = -1;
+		static final byte UNKNOWN = -2;
+
+		static StateTable build() {
+			int size = Block.BLOCK_STATE_REGISTRY.size();
+			StateTable table = new StateTable(new BlockState[size], new byte[size], new byte[size]);
+
+			for (BlockState state : Block.BLOCK_STATE_REGISTRY) {
+				int id = Block.BLOCK_STATE_REGISTRY.getId(state);
+
+				if (id < 0 || id >= size) continue;
+
+				PathNodeTypeProvider provider = NODE_TYPES.get(state.getBlock());
+				table.states[id] = state;
+
+				if (provider == null) {
+					table.nodeTypes[id] = NONE;
+					table.neighborNodeTypes[id] = NONE;
+				} else if (provider instanceof StaticPathNodeTypeProvider staticProvider) {
+					table.nodeTypes[id] = encode(staticProvider.getPathNodeType(state, false));
+					table.neighborNodeTypes[id] = encode(staticProvider.getPathNodeType(state, true));
+				} else {
+					table.nodeTypes[id] = UNKNOWN;
+					table.neighborNodeTypes[id] = UNKNOWN;
+				}
+			}
+
+			return table;
+		}
+
+		private static byte encode(@Nullable PathType nodeType) {
+			if (nodeType == null) {
+				return NONE;
+			}
+
+			// Node types that do not fit in a byte, or were added after this class was loaded, are left to the provider
+			int ordinal = nodeType.ordinal();
+			return ordinal <= Byte.MAX_VALUE && ordinal < PATH_TYPES.length ? (byte) ordinal : UNKNOWN;
+		}
+
+		boolean contains(int id, BlockState state) {
+			return id >= 0 && id < states.length && states[id] == state;
+		}
+	}
+
 	/**
 	 * Generic provider, this is a marker interface.
 	 */
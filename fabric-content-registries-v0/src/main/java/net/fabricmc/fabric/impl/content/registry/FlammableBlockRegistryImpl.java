@@ -17,8 +17,8 @@
 package net.fabricmc.fabric.impl.content.registry;
 
 import java.util.HashMap;
-import java.util.IdentityHashMap;
 import java.util.Map;
+import org.jetbrains.annotations.Nullable;
 import net.fabricmc.fabric.api.event.lifecycle.v1.CommonLifecycleEvents;
 import net.fabricmc.fabric.api.registry.FlammableBlockRegistry;
 import net.minecraft.core.Holder;
@@ -32,7 +32,7 @@ public class FlammableBlockRegistryImpl implements FlammableBlockRegistry {
 
 	private final Map<Block, FlammableBlockRegistry.Entry> registeredEntriesBlock = new HashMap<>();
 	private final Map<TagKey<Block>, FlammableBlockRegistry.Entry> registeredEntriesTag = new HashMap<>();
-	private volatile Map<Block, FlammableBlockRegistry.Entry> computedEntries = null;
+	private volatile Table computedEntries = null;
 	private final Block key;
 
 	private FlammableBlockRegistryImpl(Block key) {
@@ -44,11 +44,20 @@ public class FlammableBlockRegistryImpl implements FlammableBlockRegistry {
 		});
 	}
 
-	private Map<Block, FlammableBlockRegistry.Entry> getEntryMap() {
-		Map<Block, FlammableBlockRegistry.Entry> ret = computedEntries;
+	private Table getTable() {
+		Table ret = computedEntries;
 
 		if (ret == null) {
-			ret = new IdentityHashMap<>();
+			int size = BuiltInRegistries.BLOCK.size();
+			ret = new Table(new Block[size], new FlammableBlockRegistry.Entry[size], new FlammableBlockRegistry.Entry[size]);
+
+			for (Block block : BuiltInRegistries.BLOCK) {
+				int id = BuiltInRegistries.BLOCK.getId(block);
+
+				if (id >= 0 && id < size) {
+					ret.blocks[id] = block;
+				}
+			}
 
 			// tags take precedence over blocks
 			for (TagKey<Block> tag : registeredEntriesTag.keySet()) {
@@ -59,28 +68,66 @@ public class FlammableBlockRegistryImpl implements FlammableBlockRegistry {
 				}
 			}
 
-			ret.putAll(registeredEntriesBlock);
+			for (Map.Entry<Block, FlammableBlockRegistry.Entry> entry : registeredEntriesBlock.entrySet()) {
+				ret.put(entry.getKey(), entry.getValue());
+			}
 
+			// The merged entries are filled in lazily by get(), since querying the vanilla entries goes
+			// through the fire block hooks, which call getFabric() and thus need the published table.
 			computedEntries = ret;
 		}
 
 		return ret;
 	}
 
+	/**
+	 * Returns the table, making sure it holds the block at its raw id. The table is rebuilt if the block is not where it expects,
+	 * which happens when blocks were registered after the table was built, or when the raw ids were remapped by a registry sync.
+	 *
+	 * @return the table, or {@code null} if the block is not in the block registry
+	 */
+	@Nullable
+	private Table getTable(Block block, int id) {
+		Table table = getTable();
+
+		if (!table.contains(id, block) && id >= 0) {
+			computedEntries = null;
+			table = getTable();
+		}
+
+		return table.contains(id, block) ? table : null;
+	}
+
 	// User-facing fire registry interface - queries vanilla fire block
 	@Override
 	public Entry get(Block block) {
-		Entry entry = getEntryMap().get(block);
+		int id = BuiltInRegistries.BLOCK.getId(block);
+		Table table = getTable(block, id);
+
+		if (table != null) {
+			Entry entry = table.mergedEntries[id];
+
+			if (entry == null) {
+				entry = table.fabricEntries[id];
+
+				if (entry == null) {
+					entry = ((FireBlockHooks) key).fabric_getVanillaEntry(block.defaultBlockState());
+				}
+
+				table.mergedEntries[id] = entry;
+			}
 
-		if (entry != null) {
 			return entry;
-		} else {
-			return ((FireBlockHooks) key).fabric_getVanillaEntry(block.defaultBlockState());
 		}
+
+		Entry entry = registeredEntriesBlock.get(block);
+		return entry != null ? entry : ((FireBlockHooks) key).fabric_getVanillaEntry(block.defaultBlockState());
 	}
 
 	public Entry getFabric(Block block) {
-		return getEntryMap().get(block);
+		int id = BuiltInRegistries.BLOCK.getId(block);
+		Table table = getTable(block, id);
+		return table != null ? table.fabricEntries[id] : registeredEntriesBlock.get(block);
 	}
 
 	@Override
@@ -128,4 +175,23 @@ public class FlammableBlockRegistryImpl implements FlammableBlockRegistry {
 
 		return REGISTRIES.computeIfAbsent(block, FlammableBlockRegistryImpl::new);
 	}
+
+	/**
+	 * The entries of all blocks, indexed by their raw id in the block registry.
+	 * {@code fabricEntries} only holds the registered entries, while {@code mergedEntries} caches the entries
+	 * falling back to the vanilla ones, and is filled in as blocks are queried.
+	 */
+	private record Table(Block[] blocks, FlammableBlockRegistry.Entry[] fabricEntries, FlammableBlockRegistry.Entry[] mergedEntries) {
+		boolean contains(int id, Block block) {
+			return id >= 0 && id < blocks.length && blocks[id] == block;
+		}
+
+		void put(Block block, FlammableBlockRegistry.Entry entry) {
+			int id = BuiltInRegistries.BLOCK.getId(block);
+
+			if (contains(id, block)) {
+				fabricEntries[id] = entry;
+			}
+		}
+	}
 }
@@ -18,9 +18,11 @@ package net.fabricmc.fabric.test.content.registry;
 
 import net.fabricmc.fabric.api.gametest.v1.FabricGameTest;
 import net.fabricmc.fabric.api.registry.FlammableBlockRegistry;
+import net.minecraft.core.BlockPos;
 import net.minecraft.gametest.framework.GameTest;
 import net.minecraft.gametest.framework.GameTestAssertException;
 import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.Blocks;
 
 public class FlammableTest {
@@ -35,4 +37,35 @@ public class FlammableTest {
 
 		context.succeed();
 	}
+
+	/**
+	 * Burns a block after the computed entries were invalidated, which queries the vanilla entries through the fire block hooks.
+	 */
+	@GameTest(template = FabricGameTest.EMPTY_STRUCTURE, timeoutTicks = 1200)
+	public void testBlockBurnsAway(GameTestHelper context) {
+		FlammableBlockRegistry registry = FlammableBlockRegistry.getDefaultInstance();
+		// Invalidates the computed entries without changing them
+		registry.clear(Blocks.BEDROCK);
+
+		FlammableBlockRegistry.Entry entry = registry.get(Blocks.OAK_PLANKS);
+
+		if (entry.getBurnChance() != 5 || entry.getSpreadChance() != 20) {
+			throw new GameTestAssertException("Expected the vanilla entry of oak planks, got " + entry.getBurnChance() + "/" + entry.getSpreadChance());
+		}
+
+		BlockPos pos = new BlockPos(0, 1, 0);
+		context.setBlock(pos, Blocks.OAK_PLANKS);
+		context.setBlock(pos.above(), Blocks.FIRE);
+
+		context.succeedWhen(() -> {
+			Block block = context.getBlockState(pos).getBlock();
+
+			// Relight the fire if it burnt out before consuming the planks
+			if (block == Blocks.OAK_PLANKS && context.getBlockState(pos.above()).isAir()) {
+				context.setBlock(pos.above(), Blocks.FIRE);
+			}
+
+			context.assertBlockNotPresent(Blocks.OAK_PLANKS, pos);
+		});
+	}
 }
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.fabricmc.fabric.impl.attachment.client;
+
+import net.fabricmc.api.ClientModInitializer;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
+import net.fabricmc.fabric.impl.attachment.AttachmentRegistryImpl;
+import net.fabricmc.fabric.impl.attachment.AttachmentTargetImpl;
+import net.fabricmc.fabric.impl.attachment.AttachmentTypeImpl;
+import net.fabricmc.fabric.impl.attachment.sync.AttachmentSyncCodec;
+import net.fabricmc.fabric.impl.attachment.sync.AttachmentSyncPayload;
+import net.fabricmc.fabric.impl.attachment.sync.AttachmentSyncRequestPayload;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.chunk.status.ChunkStatus;
+import net.neoforged.neoforge.attachment.IAttachmentHolder;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class AttachmentEntrypointClient implements ClientModInitializer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AttachmentEntrypointClient.class);
+
+    @Override
+    public void onInitializeClient() {
+        ClientPlayNetworking.registerGlobalReceiver(AttachmentSyncPayload.TYPE, (payload, context) -> {
+            ClientLevel level = context.client().level;
+
+            if (level != null) {
+                apply(payload, level);
+            }
+        });
+    }
+
+    private static void apply(AttachmentSyncPayload payload, ClientLevel level) {
+        for (AttachmentSyncPayload.TargetUpdates targetUpdates : payload.targets()) {
+            IAttachmentHolder target = resolve(level, targetUpdates.target());
+
+            // The target may have been unloaded in the meantime
+            if (target == null) {
+                continue;
+            }
+
+            for (AttachmentSyncPayload.Update update : targetUpdates.updates()) {
+                AttachmentTypeImpl<?> type = AttachmentRegistryImpl.getSyncedType(update.type());
+
+                if (type != null) {
+                    apply(target, targetUpdates.target(), type, update, level);
+                }
+            }
+        }
+    }
+
+    private static <A> void apply(IAttachmentHolder target, AttachmentSyncPayload.TargetRef ref, AttachmentTypeImpl<A> type, AttachmentSyncPayload.Update update, ClientLevel level) {
+        A previous = AttachmentTargetImpl.getAttached(target, type);
+
+        if (update.operation() == AttachmentSyncPayload.Operation.DELTA && previous == null) {
+            // The value the delta applies to is missing, for example if it was removed on the client; ask for the full value instead
+            LOGGER.debug("Received a delta for attachment {} of {} without a value to apply it to, requesting the full value", type.identifier(), ref);
+            ClientPlayNetworking.send(new AttachmentSyncRequestPayload(ref, type.identifier()));
+            return;
+        }
+
+        A value = new AttachmentSyncCodec<>(type.identifier(), type.syncCodec()).apply(previous, update, level.registryAccess());
+
+        if (value == null) {
+            target.removeData(type.internalType());
+        } else {
+            target.setData(type.internalType(), value);
+        }
+    }
+
+    @Nullable
+    private static IAttachmentHolder resolve(ClientLevel level, AttachmentSyncPayload.TargetRef ref) {
+        return switch (ref.kind()) {
+            case ENTITY -> level.getEntity((int) ref.value());
+            case BLOCK_ENTITY -> level.getBlockEntity(BlockPos.of(ref.value()));
+            case CHUNK -> {
+                ChunkPos pos = new ChunkPos(ref.value());
+                yield level.getChunkSource().getChunk(pos.x, pos.z, ChunkStatus.FULL, false);
+            }
+            case LEVEL -> level;
+        };
+    }
+}
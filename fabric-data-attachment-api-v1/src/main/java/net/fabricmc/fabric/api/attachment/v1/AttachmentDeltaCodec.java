@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.fabricmc.fabric.api.attachment.v1;
+
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+
+/**
+ * A {@link StreamCodec} for synchronized attachments that can also encode a value as the difference to the value
+ * previously sent to the same player, such as only the changed entries of a map.
+ *
+ * <p>When passed to {@link AttachmentRegistry.Builder#syncWith}, values are sent in full the first time a player
+ * receives them, and as a delta afterwards. The previous value is a copy decoded from its full encoding, so values that
+ * are mutated in place and then set again are diffed correctly.</p>
+ *
+ * @param <A> the type of the attached data
+ */
+public interface AttachmentDeltaCodec<A> extends StreamCodec<RegistryFriendlyByteBuf, A> {
+	/**
+	 * Writes the difference between two values.
+	 *
+	 * @param buf the buffer to write to
+	 * @param previous the value previously sent to the players
+	 * @param value the new value
+	 */
+	void encodeDelta(RegistryFriendlyByteBuf buf, A previous, A value);
+
+	/**
+	 * Reads a difference written by {@link #encodeDelta} and applies it.
+	 *
+	 * @param buf the buffer to read from
+	 * @param previous the value currently attached on the receiving side
+	 * @return the new value
+	 */
+	A decodeDelta(RegistryFriendlyByteBuf buf, A previous);
+}
@@ -22,6 +22,8 @@ import java.util.function.Supplier;
 import com.mojang.serialization.Codec;
 import org.jetbrains.annotations.ApiStatus;
 import net.fabricmc.fabric.impl.attachment.AttachmentRegistryImpl;
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
 import net.minecraft.resources.ResourceLocation;
 
 /**
@@ -145,9 +147,54 @@ public final class AttachmentRegistry {
 		 */
 		Builder<A> initializer(Supplier<A> initializer);
 
+		/**
+		 * Declares that persisted attachments should only be decoded when they are first read, rather than when their target
+		 * is loaded. Attachments that are never read before their target is saved again are written back exactly as they were
+		 * read, without going through the codec.
+		 *
+		 * <p>This suits attachments on chunks and entities that are rarely read, as most chunks are loaded and unloaded without
+		 * their attachments being touched. Decoding errors are then reported on first read, and the attachment is dropped.
+		 * Has no effect unless the attachment type is {@linkplain #persistent(Codec) persistent}.</p>
+		 *
+		 * @return the builder
+		 */
+		Builder<A> decodeLazily();
+
+		/**
+		 * Declares that attachments should be synchronized with clients, using the provided {@link StreamCodec}.
+		 *
+		 * <p>Changes made through {@link AttachmentTarget#setAttached}, {@link AttachmentTarget#removeAttached} and the methods
+		 * built on them are collected during the server tick, and sent at the end of the tick in a single payload per player, to
+		 * the players that can see the target and pass the {@code predicate}. Players that start seeing a target receive its
+		 * synchronized attachments in full. Attachments on {@link net.minecraft.world.level.chunk.ProtoChunk}s are not synchronized.</p>
+		 *
+		 * <p>Since only calls to the methods above are noticed, mutable values must be set again after being modified.
+		 * If the codec is an {@link AttachmentDeltaCodec}, changes are sent as deltas to players that already received the previous value.</p>
+		 *
+		 * @param codec     the codec used to synchronize values
+		 * @param predicate decides which of the players that can see the target the attachment is synchronized with
+		 * @return the builder
+		 */
+		Builder<A> syncWith(StreamCodec<? super RegistryFriendlyByteBuf, A> codec, AttachmentSyncPredicate predicate);
+
+		/**
+		 * Declares that attachments of this type are read often, such as every tick on every entity, and should be
+		 * stored in a slot of a compact array on each target rather than looked up by type.
+		 *
+		 * <p>This only affects how fast attachments are read through {@link AttachmentTarget}; persistence, copying
+		 * on death and every other behavior are unchanged. Since each dense type takes a slot on every target that has
+		 * any attachment, it should be reserved for a few hot types.</p>
+		 *
+		 * @return the builder
+		 */
+		Builder<A> dense();
+
 		/**
 		 * Builds and registers the {@link AttachmentType}.
 		 *
+		 * <p>Attachment types built during mod initialization are registered together once the attachment type registry
+		 * is populated. The returned instance can be stored right away, but attachments cannot be set before that.</p>
+		 *
 		 * @param id the attachment's identifier
 		 * @return the built and registered {@link AttachmentType}
 		 */
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.fabricmc.fabric.api.attachment.v1;
+
+import net.minecraft.server.level.ServerPlayer;
+
+/**
+ * Decides which players an attachment is synchronized with, among the players that can see its target.
+ *
+ * @see AttachmentRegistry.Builder#syncWith
+ */
+@FunctionalInterface
+public interface AttachmentSyncPredicate {
+	/**
+	 * @param target the target of the attachment
+	 * @param player a player that can see the target
+	 * @return whether the attachment should be synchronized with the player
+	 */
+	boolean test(AttachmentTarget target, ServerPlayer player);
+
+	/**
+	 * @return a predicate synchronizing with every player that can see the target
+	 */
+	static AttachmentSyncPredicate all() {
+		return (target, player) -> true;
+	}
+
+	/**
+	 * @return a predicate synchronizing only with the target itself, which must be a player
+	 */
+	static AttachmentSyncPredicate targetOnly() {
+		return (target, player) -> target == player;
+	}
+
+	/**
+	 * @return a predicate synchronizing with every player that can see the target, except the target itself
+	 */
+	static AttachmentSyncPredicate allButTarget() {
+		return (target, player) -> target != player;
+	}
+}
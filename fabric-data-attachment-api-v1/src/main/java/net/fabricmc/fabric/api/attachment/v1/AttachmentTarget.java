@@ -20,7 +20,9 @@ import java.util.Objects;
 import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
 
+import net.fabricmc.fabric.impl.attachment.AttachmentTargetImpl;
 import net.fabricmc.fabric.impl.attachment.AttachmentTypeImpl;
+import net.fabricmc.fabric.impl.attachment.sync.AttachmentSyncImpl;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.level.block.entity.BlockEntity;
@@ -77,7 +79,7 @@ public interface AttachmentTarget {
 	 */
 	@Nullable
 	default <A> A getAttached(AttachmentType<A> type) {
-		return ((IAttachmentHolder) this).getExistingData(((AttachmentTypeImpl<A>) type).internalType()).orElse(null);
+		return AttachmentTargetImpl.getAttached((IAttachmentHolder) this, type);
 	}
 
 	/**
@@ -146,7 +148,16 @@ public interface AttachmentTarget {
 			throw new IllegalArgumentException("Single-argument getAttachedOrCreate is reserved for attachment types with default initializers");
 		}
 
-		return ((IAttachmentHolder) this).getData(((AttachmentTypeImpl<A>) type).internalType());
+		A attached = getAttached(type);
+
+		if (attached != null) {
+			return attached;
+		}
+
+		AttachmentTypeImpl<A> typeImpl = (AttachmentTypeImpl<A>) type;
+		A initialized = ((IAttachmentHolder) this).getData(typeImpl.internalType());
+		AttachmentSyncImpl.onChanged(this, typeImpl);
+		return initialized;
 	}
 
 	/**
@@ -160,7 +171,8 @@ public interface AttachmentTarget {
 	 */
 	@Contract("_, !null -> !null")
 	default <A> A getAttachedOrElse(AttachmentType<A> type, @Nullable A defaultValue) {
-		return ((IAttachmentHolder) this).getExistingData(((AttachmentTypeImpl<A>) type).internalType()).orElse(defaultValue);
+		A attached = getAttached(type);
+		return attached != null ? attached : defaultValue;
 	}
 
 	/**
@@ -176,7 +188,8 @@ public interface AttachmentTarget {
 	default <A> A getAttachedOrGet(AttachmentType<A> type, Supplier<A> defaultValue) {
 		Objects.requireNonNull(defaultValue, "default value supplier cannot be null");
 
-		return ((IAttachmentHolder) this).getExistingData(((AttachmentTypeImpl<A>) type).internalType()).orElseGet(defaultValue);
+		A attached = getAttached(type);
+		return attached != null ? attached : defaultValue.get();
 	}
 
 	/**
@@ -189,7 +202,10 @@ public interface AttachmentTarget {
 	 */
 	@Nullable
 	default <A> A setAttached(AttachmentType<A> type, @Nullable A value) {
-		return ((IAttachmentHolder) this).setData(((AttachmentTypeImpl<A>) type).internalType(), value);
+		AttachmentTypeImpl<A> typeImpl = (AttachmentTypeImpl<A>) type;
+		A previous = ((IAttachmentHolder) this).setData(typeImpl.internalType(), value);
+		AttachmentSyncImpl.onChanged(this, typeImpl);
+		return AttachmentTargetImpl.decodePrevious(type, previous);
 	}
 
 	/**
@@ -200,7 +216,7 @@ public interface AttachmentTarget {
 	 * @return whether there is associated data
 	 */
 	default boolean hasAttached(AttachmentType<?> type) {
-		return ((IAttachmentHolder) this).hasData(((AttachmentTypeImpl<?>) type).internalType());
+		return AttachmentTargetImpl.hasAttached((IAttachmentHolder) this, type);
 	}
 
 	/**
@@ -213,7 +229,10 @@ public interface AttachmentTarget {
 	 */
 	@Nullable
 	default <A> A removeAttached(AttachmentType<A> type) {
-		return ((IAttachmentHolder) this).removeData(((AttachmentTypeImpl<A>) type).internalType());
+		AttachmentTypeImpl<A> typeImpl = (AttachmentTypeImpl<A>) type;
+		A previous = ((IAttachmentHolder) this).removeData(typeImpl.internalType());
+		AttachmentSyncImpl.onChanged(this, typeImpl);
+		return AttachmentTargetImpl.decodePrevious(type, previous);
 	}
 
 	/**
@@ -24,6 +24,8 @@ import org.jetbrains.annotations.Nullable;
 import net.fabricmc.fabric.api.entity.event.v1.ServerEntityWorldChangeEvents;
 import net.fabricmc.fabric.api.entity.event.v1.ServerLivingEntityEvents;
 import net.fabricmc.fabric.api.entity.event.v1.ServerPlayerEvents;
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.entity.Entity;
@@ -96,4 +98,20 @@ public interface AttachmentType<A> {
 	 * when a mob is converted (e.g. zombie → drowned)
 	 */
 	boolean copyOnDeath();
+
+	/**
+	 * An optional {@link StreamCodec} used for synchronizing attachments with clients.
+	 *
+	 * @return the synchronization codec, may be null
+	 * @see AttachmentRegistry.Builder#syncWith
+	 */
+	@Nullable
+	StreamCodec<? super RegistryFriendlyByteBuf, A> syncCodec();
+
+	/**
+	 * @return whether the attachments are synchronized with clients
+	 */
+	default boolean isSynced() {
+		return syncCodec() != null;
+	}
 }
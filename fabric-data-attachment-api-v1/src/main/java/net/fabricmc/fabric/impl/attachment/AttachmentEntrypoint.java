@@ -20,10 +20,22 @@ import net.fabricmc.api.ModInitializer;
 import net.fabricmc.fabric.api.entity.event.v1.ServerEntityWorldChangeEvents;
 import net.fabricmc.fabric.api.entity.event.v1.ServerLivingEntityEvents;
 import net.fabricmc.fabric.api.entity.event.v1.ServerPlayerEvents;
+import net.fabricmc.fabric.api.networking.v1.EntityTrackingEvents;
+import net.fabricmc.fabric.api.networking.v1.PayloadTypeRegistry;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+import net.fabricmc.fabric.impl.attachment.sync.AttachmentSyncImpl;
+import net.fabricmc.fabric.impl.attachment.sync.AttachmentSyncPayload;
+import net.fabricmc.fabric.impl.attachment.sync.AttachmentSyncRequestPayload;
 import net.fabricmc.fabric.mixin.attachment.AttachmentHolderAccessor;
-import net.fabricmc.fabric.mixin.attachment.AttachmentTypeAccessor;
+import net.neoforged.fml.ModLoadingContext;
 import net.neoforged.neoforge.attachment.AttachmentType;
 import net.neoforged.neoforge.attachment.IAttachmentHolder;
+import net.neoforged.neoforge.common.NeoForge;
+import net.neoforged.neoforge.event.level.ChunkWatchEvent;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+import net.neoforged.neoforge.registries.RegisterEvent;
 
 import java.util.Map;
 
@@ -31,6 +43,7 @@ public class AttachmentEntrypoint implements ModInitializer {
 
     @Override
     public void onInitialize() {
+        ModLoadingContext.get().getActiveContainer().getEventBus().addListener(RegisterEvent.class, AttachmentRegistryImpl::registerPending);
         ServerPlayerEvents.COPY_FROM.register((oldPlayer, newPlayer, alive) ->
             transfer(oldPlayer, newPlayer, true, !alive)
         );
@@ -41,6 +54,18 @@ public class AttachmentEntrypoint implements ModInitializer {
         ServerLivingEntityEvents.MOB_CONVERSION.register((previous, converted, keepEquipment) ->
             transfer(previous, converted, false, true)
         );
+
+        PayloadTypeRegistry.playS2C().register(AttachmentSyncPayload.TYPE, AttachmentSyncPayload.CODEC, PayloadTypeRegistry.Compression.DEFLATE);
+        PayloadTypeRegistry.playC2S().register(AttachmentSyncRequestPayload.TYPE, AttachmentSyncRequestPayload.CODEC);
+        ServerPlayNetworking.registerGlobalReceiver(AttachmentSyncRequestPayload.TYPE, (payload, context) -> AttachmentSyncImpl.onResyncRequest(context.player(), payload));
+        NeoForge.EVENT_BUS.addListener(ServerTickEvent.Post.class, event -> AttachmentSyncImpl.flush());
+        NeoForge.EVENT_BUS.addListener(ServerStoppedEvent.class, event -> AttachmentSyncImpl.clear());
+        NeoForge.EVENT_BUS.addListener(ChunkWatchEvent.Watch.class, event -> AttachmentSyncImpl.onStartSeeingChunk(event.getChunk(), event.getPlayer()));
+        EntityTrackingEvents.START_TRACKING.register((trackedEntity, player) -> AttachmentSyncImpl.onStartSeeing(trackedEntity, player));
+        ServerPlayConnectionEvents.JOIN.register((handler, sender, server) -> AttachmentSyncImpl.onPlayerReady(handler.player));
+        ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> AttachmentSyncImpl.onDisconnect(handler.player));
+        ServerPlayerEvents.AFTER_RESPAWN.register((oldPlayer, newPlayer, alive) -> AttachmentSyncImpl.onPlayerReady(newPlayer));
+        ServerEntityWorldChangeEvents.AFTER_PLAYER_CHANGE_WORLD.register((player, origin, destination) -> AttachmentSyncImpl.onPlayerReady(player));
     }
 
     /**
@@ -49,20 +74,28 @@ public class AttachmentEntrypoint implements ModInitializer {
      * triggered on player respawn, entity conversion, return from the End, or cross-world entity teleportation.
      * In the first two cases, only the attachments with {@link net.fabricmc.fabric.api.attachment.v1.AttachmentType#copyOnDeath()} will be transferred.
      */
-    @SuppressWarnings({"unchecked", "rawtypes"})
     public static void transfer(IAttachmentHolder original, IAttachmentHolder target, boolean copyOnlyNonSerializable, boolean isDeath) {
-        Map<AttachmentType<?>, ?> attachments = ((AttachmentHolderAccessor) original).invokeGetAttachmentMap();
+        Map<AttachmentType<?>, Object> attachments = ((AttachmentHolderAccessor) original).getAttachmentsOrNull();
 
-        if (attachments == null) {
+        if (attachments == null || attachments.isEmpty()) {
             return;
         }
 
-        for (Map.Entry<AttachmentType<?>, ?> entry : attachments.entrySet()) {
-			AttachmentType type = entry.getKey();
-			net.fabricmc.fabric.api.attachment.v1.AttachmentType<?> fabricType = AttachmentRegistryImpl.getFabricAttachmentType(type);
-			if (fabricType != null && (!copyOnlyNonSerializable || ((AttachmentTypeAccessor) (Object) type).getSerializer() == null) && (!isDeath || fabricType.copyOnDeath())) {
-				target.setData(type, entry.getValue());
-			}
+        int excluded = copyOnlyNonSerializable ? AttachmentTypeExtensions.SERIALIZABLE : 0;
+        int required = AttachmentTypeExtensions.FABRIC | (isDeath ? AttachmentTypeExtensions.COPY_ON_DEATH : 0);
+        Map<AttachmentType<?>, Object> targetAttachments = null;
+
+        for (Map.Entry<AttachmentType<?>, Object> entry : attachments.entrySet()) {
+            int flags = ((AttachmentTypeExtensions) (Object) entry.getKey()).fabric_getTransferFlags();
+
+            if ((flags & required) == required && (flags & excluded) == 0) {
+                if (targetAttachments == null) {
+                    targetAttachments = ((AttachmentHolderAccessor) target).invokeGetAttachmentMap();
+                }
+
+                // The types are registered and the values non-null already, so the checks of setData can be skipped
+                targetAttachments.put(entry.getKey(), entry.getValue());
+            }
         }
     }
 }
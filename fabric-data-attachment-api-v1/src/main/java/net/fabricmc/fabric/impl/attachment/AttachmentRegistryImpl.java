@@ -18,28 +18,89 @@ package net.fabricmc.fabric.impl.attachment;
 
 import com.mojang.serialization.Codec;
 import net.fabricmc.fabric.api.attachment.v1.AttachmentRegistry;
+import net.fabricmc.fabric.api.attachment.v1.AttachmentSyncPredicate;
 import net.fabricmc.fabric.api.attachment.v1.AttachmentType;
 import net.fabricmc.fabric.mixin.attachment.BaseMappedRegistryAccessor;
 import net.minecraft.core.Registry;
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
 import net.minecraft.resources.ResourceLocation;
 import net.neoforged.neoforge.registries.NeoForgeRegistries;
+import net.neoforged.neoforge.registries.RegisterEvent;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.function.Supplier;
 
 public final class AttachmentRegistryImpl {
-    private static final Map<net.neoforged.neoforge.attachment.AttachmentType<?>, AttachmentType<?>> FABRIC_ATTACHMENT_TYPES = new HashMap<>();
+    private static final Map<net.neoforged.neoforge.attachment.AttachmentType<?>, AttachmentType<?>> FABRIC_ATTACHMENT_TYPES = new IdentityHashMap<>();
+    private static final Map<ResourceLocation, AttachmentTypeImpl<?>> SYNCED_ATTACHMENT_TYPES = new LinkedHashMap<>();
+    /**
+     * Attachment types created before the attachment type registry is populated, registered all at once by {@link #registerPending(RegisterEvent)}
+     * instead of unfreezing and refreezing the registry for each of them.
+     */
+    private static final Map<ResourceLocation, net.neoforged.neoforge.attachment.AttachmentType<?>> PENDING_REGISTRATIONS = new LinkedHashMap<>();
+    private static boolean registryPopulated = false;
+    private static int denseSlotCount = 0;
 
-    public static <A> net.neoforged.neoforge.attachment.AttachmentType<A> register(ResourceLocation id, net.neoforged.neoforge.attachment.AttachmentType<A> attachmentType) {
+    public static synchronized <A> net.neoforged.neoforge.attachment.AttachmentType<A> register(ResourceLocation id, net.neoforged.neoforge.attachment.AttachmentType<A> attachmentType) {
+        if (!registryPopulated) {
+            if (PENDING_REGISTRATIONS.putIfAbsent(id, attachmentType) != null) {
+                throw new IllegalStateException("Attachment type " + id + " is already registered");
+            }
+
+            return attachmentType;
+        }
+
+        // Created after registration, e.g. lazily at runtime
         ((BaseMappedRegistryAccessor) NeoForgeRegistries.ATTACHMENT_TYPES).invokeUnfreeze();
         Registry.register(NeoForgeRegistries.ATTACHMENT_TYPES, id, attachmentType);
         NeoForgeRegistries.ATTACHMENT_TYPES.freeze();
         return attachmentType;
     }
 
+    public static void registerPending(RegisterEvent event) {
+        event.register(NeoForgeRegistries.Keys.ATTACHMENT_TYPES, helper -> {
+            synchronized (AttachmentRegistryImpl.class) {
+                PENDING_REGISTRATIONS.forEach(helper::register);
+                PENDING_REGISTRATIONS.clear();
+                registryPopulated = true;
+            }
+        });
+    }
+
+    private static synchronized int allocateDenseSlot() {
+        return denseSlotCount++;
+    }
+
+    /**
+     * @return the number of slots handed out to dense attachment types so far
+     */
+    public static int getDenseSlotCount() {
+        return denseSlotCount;
+    }
+
+    /**
+     * @return the slot of the Fabric attachment type backed by {@code neoType}, or {@link AttachmentTypeImpl#NO_SLOT} if it is not dense
+     */
+    public static int getDenseSlot(net.neoforged.neoforge.attachment.AttachmentType<?> neoType) {
+        return FABRIC_ATTACHMENT_TYPES.get(neoType) instanceof AttachmentTypeImpl<?> type ? type.denseSlot() : AttachmentTypeImpl.NO_SLOT;
+    }
+
+    @Nullable
+    public static AttachmentTypeImpl<?> getSyncedType(ResourceLocation id) {
+        return SYNCED_ATTACHMENT_TYPES.get(id);
+    }
+
+    public static Collection<AttachmentTypeImpl<?>> getSyncedTypes() {
+        return Collections.unmodifiableCollection(SYNCED_ATTACHMENT_TYPES.values());
+    }
+
     public static <A> AttachmentRegistry.Builder<A> builder() {
         return new BuilderImpl<>();
     }
@@ -55,6 +116,12 @@ public final class AttachmentRegistryImpl {
         @Nullable
         private Codec<A> persistenceCodec = null;
         private boolean copyOnDeath = false;
+        private boolean decodeLazily = false;
+        @Nullable
+        private StreamCodec<? super RegistryFriendlyByteBuf, A> syncCodec = null;
+        @Nullable
+        private AttachmentSyncPredicate syncPredicate = null;
+        private boolean dense = false;
 
         @Override
         public AttachmentRegistry.Builder<A> persistent(Codec<A> codec) {
@@ -78,18 +145,51 @@ public final class AttachmentRegistryImpl {
             return this;
         }
 
+        @Override
+        public AttachmentRegistry.Builder<A> decodeLazily() {
+            this.decodeLazily = true;
+            return this;
+        }
+
+        @Override
+        public AttachmentRegistry.Builder<A> syncWith(StreamCodec<? super RegistryFriendlyByteBuf, A> codec, AttachmentSyncPredicate predicate) {
+            Objects.requireNonNull(codec, "codec cannot be null");
+            Objects.requireNonNull(predicate, "predicate cannot be null");
+
+            this.syncCodec = codec;
+            this.syncPredicate = predicate;
+            return this;
+        }
+
+        @Override
+        public AttachmentRegistry.Builder<A> dense() {
+            this.dense = true;
+            return this;
+        }
+
         @Override
         public AttachmentType<A> buildAndRegister(ResourceLocation id) {
-            net.neoforged.neoforge.attachment.AttachmentType<A> neoType = register(id, toNeoForgeAttachmentType()); 
-            AttachmentType<A> attachmentType = new AttachmentTypeImpl<>(neoType, id, defaultInitializer, persistenceCodec, copyOnDeath);
+            net.neoforged.neoforge.attachment.AttachmentType<A> neoType = register(id, toNeoForgeAttachmentType(id)); 
+            int denseSlot = dense ? allocateDenseSlot() : AttachmentTypeImpl.NO_SLOT;
+            AttachmentTypeImpl<A> attachmentType = new AttachmentTypeImpl<>(neoType, id, defaultInitializer, persistenceCodec, copyOnDeath, syncCodec, syncPredicate, denseSlot);
             FABRIC_ATTACHMENT_TYPES.put(neoType, attachmentType);
+            ((AttachmentTypeExtensions) (Object) neoType).fabric_setTransferFlags(AttachmentTypeExtensions.FABRIC
+                    | (persistenceCodec != null ? AttachmentTypeExtensions.SERIALIZABLE : 0)
+                    | (copyOnDeath ? AttachmentTypeExtensions.COPY_ON_DEATH : 0));
+            if (attachmentType.isSynced()) {
+                SYNCED_ATTACHMENT_TYPES.put(id, attachmentType);
+            }
             return attachmentType;
         }
 
-        private net.neoforged.neoforge.attachment.AttachmentType<A> toNeoForgeAttachmentType() {
+        private net.neoforged.neoforge.attachment.AttachmentType<A> toNeoForgeAttachmentType(ResourceLocation id) {
             net.neoforged.neoforge.attachment.AttachmentType.Builder<A> builder = net.neoforged.neoforge.attachment.AttachmentType.builder(this.defaultInitializer != null ? this.defaultInitializer : () -> null);
             if (this.persistenceCodec != null) {
-                builder.serialize(this.persistenceCodec);
+                if (this.decodeLazily) {
+                    builder.serialize(new LazyAttachmentSerializer<>(id, this.persistenceCodec));
+                } else {
+                    builder.serialize(this.persistenceCodec);
+                }
                 if (this.copyOnDeath) {
                     builder.copyOnDeath();
                 }
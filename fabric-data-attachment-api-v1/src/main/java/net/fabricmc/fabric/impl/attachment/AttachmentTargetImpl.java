@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.attachment;
+
+import net.fabricmc.fabric.api.attachment.v1.AttachmentType;
+import net.fabricmc.fabric.mixin.attachment.AttachmentHolderAccessor;
+import net.neoforged.neoforge.attachment.IAttachmentHolder;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+
+/**
+ * Read paths of {@link net.fabricmc.fabric.api.attachment.v1.AttachmentTarget} that go straight to the attachment map of the holder.
+ *
+ * <p>{@link IAttachmentHolder#getExistingData} wraps every result in an {@link java.util.Optional}, which adds up for attachments read every tick
+ * on every entity. Holders extending {@link net.neoforged.neoforge.attachment.AttachmentHolder} (entities, block entities and levels) are read
+ * directly; other holders, such as chunks, delegate to their own holder and go through the regular API. Dense attachment types are read from
+ * the slot array of a {@link DenseAttachmentMap}. Values of lazily decoded types are decoded on first read and stored back.
+ */
+public final class AttachmentTargetImpl {
+    private AttachmentTargetImpl() {
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public static <A> A getAttached(IAttachmentHolder target, AttachmentType<A> type) {
+        AttachmentTypeImpl<A> typeImpl = (AttachmentTypeImpl<A>) type;
+        net.neoforged.neoforge.attachment.AttachmentType<A> internalType = typeImpl.internalType();
+        Object value;
+
+        if (target instanceof AttachmentHolderAccessor holder) {
+            Map<net.neoforged.neoforge.attachment.AttachmentType<?>, Object> attachments = holder.getAttachmentsOrNull();
+
+            if (attachments == null) {
+                return null;
+            }
+
+            value = attachments instanceof DenseAttachmentMap denseMap && typeImpl.isDense() ? denseMap.getDense(typeImpl.denseSlot()) : attachments.get(internalType);
+        } else {
+            value = target.getExistingData(internalType).orElse(null);
+        }
+
+        if (value instanceof LazyAttachmentSerializer.Pending pending) {
+            return decodePending(target, typeImpl, pending);
+        }
+
+        return (A) value;
+    }
+
+    /**
+     * Decodes a value returned by a write of the attachment map, without storing it back.
+     */
+    @Nullable
+    public static <A> A decodePrevious(AttachmentType<A> type, @Nullable A previous) {
+        return LazyAttachmentSerializer.decodeIfPending(previous);
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private static <A> A decodePending(IAttachmentHolder target, AttachmentTypeImpl<A> type, LazyAttachmentSerializer.Pending pending) {
+        A decoded = (A) pending.decode();
+
+        if (target instanceof AttachmentHolderAccessor holder) {
+            // Replaced in the map directly, as decoding does not change the attachment and must not mark the target as changed
+            Map<net.neoforged.neoforge.attachment.AttachmentType<?>, Object> attachments = holder.invokeGetAttachmentMap();
+
+            if (decoded != null) {
+                attachments.put(type.internalType(), decoded);
+            } else {
+                attachments.remove(type.internalType());
+            }
+        } else if (decoded != null) {
+            target.setData(type.internalType(), decoded);
+        } else {
+            target.removeData(type.internalType());
+        }
+
+        return decoded;
+    }
+
+    public static boolean hasAttached(IAttachmentHolder target, AttachmentType<?> type) {
+        net.neoforged.neoforge.attachment.AttachmentType<?> internalType = ((AttachmentTypeImpl<?>) type).internalType();
+
+        if (target instanceof AttachmentHolderAccessor holder) {
+            Map<net.neoforged.neoforge.attachment.AttachmentType<?>, Object> attachments = holder.getAttachmentsOrNull();
+            return attachments != null && attachments.containsKey(internalType);
+        }
+
+        return target.hasData(internalType);
+    }
+}
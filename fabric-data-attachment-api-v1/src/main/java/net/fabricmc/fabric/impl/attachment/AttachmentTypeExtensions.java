@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.attachment;
+
+/**
+ * Implemented on NeoForge attachment types, to tell which attachments {@link AttachmentEntrypoint#transfer} copies without looking up their Fabric type.
+ */
+public interface AttachmentTypeExtensions {
+    /**
+     * Set on NeoForge types backing a Fabric attachment type; attachments of other types are never transferred.
+     */
+    int FABRIC = 1;
+    int SERIALIZABLE = 1 << 1;
+    int COPY_ON_DEATH = 1 << 2;
+
+    int fabric_getTransferFlags();
+
+    void fabric_setTransferFlags(int flags);
+}
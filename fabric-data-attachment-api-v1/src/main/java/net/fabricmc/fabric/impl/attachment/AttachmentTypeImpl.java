@@ -20,7 +20,10 @@ import java.util.function.Supplier;
 
 import com.mojang.serialization.Codec;
 import org.jetbrains.annotations.Nullable;
+import net.fabricmc.fabric.api.attachment.v1.AttachmentSyncPredicate;
 import net.fabricmc.fabric.api.attachment.v1.AttachmentType;
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
 import net.minecraft.resources.ResourceLocation;
 
 public record AttachmentTypeImpl<A>(
@@ -28,5 +31,17 @@ public record AttachmentTypeImpl<A>(
 		ResourceLocation identifier,
 		@Nullable Supplier<A> initializer,
 		@Nullable Codec<A> persistenceCodec,
-		boolean copyOnDeath
-) implements AttachmentType<A> { }
+		boolean copyOnDeath,
+		@Nullable StreamCodec<? super RegistryFriendlyByteBuf, A> syncCodec,
+		@Nullable AttachmentSyncPredicate syncPredicate,
+		int denseSlot
+) implements AttachmentType<A> {
+	/**
+	 * Slot value of attachment types that are not {@linkplain net.fabricmc.fabric.api.attachment.v1.AttachmentRegistry.Builder#dense() dense}.
+	 */
+	public static final int NO_SLOT = -1;
+
+	public boolean isDense() {
+		return denseSlot != NO_SLOT;
+	}
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.attachment;
+
+import net.neoforged.neoforge.attachment.AttachmentType;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Attachment map of holders while {@linkplain net.fabricmc.fabric.api.attachment.v1.AttachmentRegistry.Builder#dense() dense} attachment types exist.
+ *
+ * <p>The wrapped identity map stays authoritative, so that NeoForge's serialization and copying keep working on it unchanged; values of dense
+ * types are additionally mirrored into an array indexed by their slot, which {@link AttachmentTargetImpl} reads instead of hashing the type.
+ * The wrapped map is never exposed: every mutation goes through {@link #put}, {@link #remove}, {@link #clear}, {@link #replaceAll}, or the
+ * entry set view and its entries, which all update the mirror. The other mutators of {@link Map} are built on these.
+ */
+public final class DenseAttachmentMap extends AbstractMap<AttachmentType<?>, Object> {
+    private static final Object[] EMPTY = new Object[0];
+
+    private final Map<AttachmentType<?>, Object> map = new IdentityHashMap<>(4);
+    private final ToIntFunction<AttachmentType<?>> slots;
+    private Object[] dense = EMPTY;
+    @Nullable
+    private Set<Map.Entry<AttachmentType<?>, Object>> entrySet;
+
+    /**
+     * @param slots returns the dense slot of a type, or {@link AttachmentTypeImpl#NO_SLOT}
+     */
+    public DenseAttachmentMap(ToIntFunction<AttachmentType<?>> slots) {
+        this.slots = slots;
+    }
+
+    @Nullable
+    public Object getDense(int slot) {
+        Object[] dense = this.dense;
+        return slot < dense.length ? dense[slot] : null;
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return map.isEmpty();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return map.containsKey(key);
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        return map.containsValue(value);
+    }
+
+    @Override
+    public Object get(Object key) {
+        return map.get(key);
+    }
+
+    @Override
+    public Object put(AttachmentType<?> key, Object value) {
+        Object previous = map.put(key, value);
+        mirror(key, value);
+        return previous;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        if (!(key instanceof AttachmentType<?> type)) {
+            return null;
+        }
+
+        Object previous = map.remove(type);
+        mirror(type, null);
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        map.clear();
+        Arrays.fill(dense, null);
+    }
+
+    @Override
+    public void replaceAll(BiFunction<? super AttachmentType<?>, ? super Object, ?> function) {
+        map.replaceAll(function);
+        Arrays.fill(dense, null);
+        map.forEach(this::mirror);
+    }
+
+    @Override
+    public Set<Map.Entry<AttachmentType<?>, Object>> entrySet() {
+        Set<Map.Entry<AttachmentType<?>, Object>> entrySet = this.entrySet;
+        return entrySet != null ? entrySet : (this.entrySet = new EntrySet());
+    }
+
+    private void mirror(AttachmentType<?> type, @Nullable Object value) {
+        int slot = slots.applyAsInt(type);
+
+        if (slot == AttachmentTypeImpl.NO_SLOT) {
+            return;
+        }
+
+        if (slot >= dense.length) {
+            if (value == null) {
+                return;
+            }
+
+            // Size for every slot handed out so far, so that the array is grown at most once per holder in practice
+            dense = Arrays.copyOf(dense, Math.max(slot + 1, AttachmentRegistryImpl.getDenseSlotCount()));
+        }
+
+        dense[slot] = value;
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<AttachmentType<?>, Object>> {
+        @Override
+        public Iterator<Map.Entry<AttachmentType<?>, Object>> iterator() {
+            Iterator<Map.Entry<AttachmentType<?>, Object>> iterator = map.entrySet().iterator();
+
+            return new Iterator<>() {
+                @Nullable
+                private AttachmentType<?> last;
+
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public Map.Entry<AttachmentType<?>, Object> next() {
+                    Map.Entry<AttachmentType<?>, Object> next = iterator.next();
+                    last = next.getKey();
+                    return new MirroredEntry(next);
+                }
+
+                @Override
+                public void remove() {
+                    iterator.remove();
+                    mirror(last, null);
+                    last = null;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return map.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return map.entrySet().contains(o);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (o instanceof Map.Entry<?, ?> entry && map.entrySet().contains(entry)) {
+                DenseAttachmentMap.this.remove(entry.getKey());
+                return true;
+            }
+
+            return false;
+        }
+
+        @Override
+        public void clear() {
+            DenseAttachmentMap.this.clear();
+        }
+    }
+
+    private final class MirroredEntry implements Map.Entry<AttachmentType<?>, Object> {
+        private final Map.Entry<AttachmentType<?>, Object> entry;
+
+        private MirroredEntry(Map.Entry<AttachmentType<?>, Object> entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public AttachmentType<?> getKey() {
+            return entry.getKey();
+        }
+
+        @Override
+        public Object getValue() {
+            return entry.getValue();
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            Object previous = entry.setValue(value);
+            mirror(entry.getKey(), value);
+            return previous;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return entry.equals(o);
+        }
+
+        @Override
+        public int hashCode() {
+            return entry.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return entry.toString();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.fabricmc.fabric.impl.attachment;
+
+import com.mojang.serialization.Codec;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.nbt.NbtOps;
+import net.minecraft.nbt.Tag;
+import net.minecraft.resources.ResourceLocation;
+import net.neoforged.neoforge.attachment.IAttachmentHolder;
+import net.neoforged.neoforge.attachment.IAttachmentSerializer;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serializer of attachment types that {@linkplain net.fabricmc.fabric.api.attachment.v1.AttachmentRegistry.Builder#decodeLazily() decode lazily}.
+ *
+ * <p>Reading stores a {@link Pending} holding the raw tag in the attachment map instead of the decoded value. It is decoded on first access,
+ * by {@link AttachmentTargetImpl} for the Fabric API and by {@link net.fabricmc.fabric.mixin.attachment.AttachmentHolderMixin} for the
+ * NeoForge one, so that it is never handed out as a value. Writing a value that was never accessed returns its tag as it was read,
+ * and copying one keeps it pending, as copies go through the serializer.
+ */
+public final class LazyAttachmentSerializer<A> implements IAttachmentSerializer<Tag, A> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LazyAttachmentSerializer.class);
+
+    private final ResourceLocation id;
+    private final Codec<A> codec;
+
+    public LazyAttachmentSerializer(ResourceLocation id, Codec<A> codec) {
+        this.id = id;
+        this.codec = codec;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public A read(IAttachmentHolder holder, Tag tag, HolderLookup.Provider provider) {
+        // Stored in place of the value, and never handed out as one
+        return (A) new Pending(this, tag, provider);
+    }
+
+    @Override
+    public Tag write(A attachment, HolderLookup.Provider provider) {
+        if ((Object) attachment instanceof Pending pending) {
+            return pending.tag();
+        }
+
+        return codec.encodeStart(provider.createSerializationContext(NbtOps.INSTANCE), attachment).getOrThrow();
+    }
+
+    /**
+     * @return the value itself, or the decoded value if it is {@linkplain Pending pending}, which is {@code null} if it could not be decoded
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public static <A> A decodeIfPending(@Nullable A value) {
+        return (Object) value instanceof Pending pending ? (A) pending.decode() : value;
+    }
+
+    /**
+     * A persisted attachment value that has not been decoded yet.
+     */
+    public record Pending(LazyAttachmentSerializer<?> serializer, Tag tag, HolderLookup.Provider provider) {
+        /**
+         * @return the decoded value, or {@code null} if it could not be decoded
+         */
+        @Nullable
+        public Object decode() {
+            return serializer.codec.parse(provider.createSerializationContext(NbtOps.INSTANCE), tag)
+                    .resultOrPartial(error -> LOGGER.error("Failed to decode attachment {}: {}", serializer.id, error))
+                    .orElse(null);
+        }
+    }
+}
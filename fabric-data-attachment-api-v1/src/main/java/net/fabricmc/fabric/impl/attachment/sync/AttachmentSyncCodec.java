@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.attachment.sync;
+
+import io.netty.buffer.Unpooled;
+import net.fabricmc.fabric.api.attachment.v1.AttachmentDeltaCodec;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.resources.ResourceLocation;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Turns values of a synchronized attachment type into {@link AttachmentSyncPayload.Update}s, and applies them on the receiving side.
+ *
+ * <p>The server diffs against a {@link Snapshot} rather than against the attached value itself, as values may be mutated in place
+ * and set again, in which case the previous and the new value are the same object.
+ */
+public final class AttachmentSyncCodec<A> {
+    private final ResourceLocation type;
+    private final StreamCodec<? super RegistryFriendlyByteBuf, A> codec;
+
+    public AttachmentSyncCodec(ResourceLocation type, StreamCodec<? super RegistryFriendlyByteBuf, A> codec) {
+        this.type = type;
+        this.codec = codec;
+    }
+
+    /**
+     * Takes a snapshot of a value, by encoding it in full and decoding a copy of it.
+     * The copy is only decoded for {@linkplain AttachmentDeltaCodec delta codecs}, as other codecs only compare the encoded values.
+     */
+    public Snapshot<A> snapshot(A value, RegistryAccess registries) {
+        byte[] encoded = encode(registries, buf -> codec.encode(buf, value));
+        A copy = codec instanceof AttachmentDeltaCodec<?> ? codec.decode(wrap(encoded, registries)) : null;
+        return new Snapshot<>(copy, encoded);
+    }
+
+    public AttachmentSyncPayload.Update set(Snapshot<A> current) {
+        return new AttachmentSyncPayload.Update(type, AttachmentSyncPayload.Operation.SET, current.encoded());
+    }
+
+    /**
+     * Creates the update sent to players that received the {@code previous} value.
+     *
+     * @return the update, or {@code null} if the value did not change
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public AttachmentSyncPayload.Update change(Snapshot<A> previous, Snapshot<A> current, RegistryAccess registries) {
+        if (Arrays.equals(previous.encoded(), current.encoded())) {
+            return null;
+        }
+
+        if (codec instanceof AttachmentDeltaCodec<?> deltaCodec) {
+            byte[] delta = encode(registries, buf -> ((AttachmentDeltaCodec<A>) deltaCodec).encodeDelta(buf, previous.value(), current.value()));
+            return new AttachmentSyncPayload.Update(type, AttachmentSyncPayload.Operation.DELTA, delta);
+        }
+
+        return set(current);
+    }
+
+    public AttachmentSyncPayload.Update remove() {
+        return new AttachmentSyncPayload.Update(type, AttachmentSyncPayload.Operation.REMOVE, null);
+    }
+
+    /**
+     * Applies an update to the value currently attached on the receiving side.
+     *
+     * @return the new value, or {@code null} if the attachment was removed
+     * @throws IllegalStateException if the update is a delta, but there is no value to apply it to
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public A apply(@Nullable A current, AttachmentSyncPayload.Update update, RegistryAccess registries) {
+        return switch (update.operation()) {
+            case SET -> codec.decode(wrap(update.data(), registries));
+            case DELTA -> {
+                if (current == null || !(codec instanceof AttachmentDeltaCodec<?> deltaCodec)) {
+                    throw new IllegalStateException("Received a delta for attachment " + type + " without a value to apply it to");
+                }
+
+                yield ((AttachmentDeltaCodec<A>) deltaCodec).decodeDelta(wrap(update.data(), registries), current);
+            }
+            case REMOVE -> null;
+        };
+    }
+
+    private static byte[] encode(RegistryAccess registries, Consumer<RegistryFriendlyByteBuf> writer) {
+        RegistryFriendlyByteBuf buf = new RegistryFriendlyByteBuf(Unpooled.buffer(), registries);
+        writer.accept(buf);
+        byte[] data = new byte[buf.readableBytes()];
+        buf.readBytes(data);
+        return data;
+    }
+
+    private static RegistryFriendlyByteBuf wrap(byte[] data, RegistryAccess registries) {
+        return new RegistryFriendlyByteBuf(Unpooled.wrappedBuffer(data), registries);
+    }
+
+    /**
+     * A value as it was sent to players.
+     *
+     * @param value a copy of the value decoded from its encoding, only kept for {@linkplain AttachmentDeltaCodec delta codecs}
+     * @param encoded the full encoding of the value
+     */
+    public record Snapshot<A>(@Nullable A value, byte[] encoded) {
+    }
+}
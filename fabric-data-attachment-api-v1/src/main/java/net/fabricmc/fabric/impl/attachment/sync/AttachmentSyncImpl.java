@@ -0,0 +1,369 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.fabricmc.fabric.impl.attachment.sync;
+
+import net.fabricmc.fabric.api.attachment.v1.AttachmentTarget;
+import net.fabricmc.fabric.api.networking.v1.PlayerLookup;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+import net.fabricmc.fabric.impl.attachment.AttachmentRegistryImpl;
+import net.fabricmc.fabric.impl.attachment.AttachmentTypeImpl;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.chunk.LevelChunk;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.WeakHashMap;
+
+/**
+ * Server side of attachment synchronization.
+ *
+ * <p>Changes are only recorded while the tick runs, and turned into updates once per target and attachment type by {@link #flush()}
+ * at the end of the tick; updates are then sent in one {@link AttachmentSyncPayload} per player. For every synchronized value,
+ * a {@linkplain AttachmentSyncCodec.Snapshot snapshot} of the value and the players it was sent to are remembered, which is the base
+ * for deltas and for the full updates sent to players that start seeing the target afterwards. All state is confined to the server thread.
+ */
+public final class AttachmentSyncImpl {
+    private static final Map<AttachmentTarget, Set<AttachmentTypeImpl<?>>> DIRTY = new LinkedHashMap<>();
+    private static final Map<AttachmentTarget, Map<AttachmentTypeImpl<?>, SyncedValue>> SYNCED = new WeakHashMap<>();
+    private static final Map<ServerPlayer, Map<AttachmentSyncPayload.TargetRef, List<AttachmentSyncPayload.Update>>> PENDING = new LinkedHashMap<>();
+
+    private AttachmentSyncImpl() {
+    }
+
+    /**
+     * Records a change of a synchronized attachment, to be sent at the end of the tick.
+     */
+    public static void onChanged(AttachmentTarget target, AttachmentTypeImpl<?> type) {
+        if (!type.isSynced()) {
+            return;
+        }
+
+        ServerLevel level = getLevel(target);
+
+        if (level == null) {
+            return;
+        }
+
+        if (!level.getServer().isSameThread()) {
+            level.getServer().execute(() -> onChanged(target, type));
+            return;
+        }
+
+        DIRTY.computeIfAbsent(target, t -> new LinkedHashSet<>()).add(type);
+    }
+
+    /**
+     * Sends the synchronized attachments of a target to a player that just started seeing it.
+     */
+    public static void onStartSeeing(AttachmentTarget target, ServerPlayer player) {
+        if (AttachmentRegistryImpl.getSyncedTypes().isEmpty() || !canReceive(player)) {
+            return;
+        }
+
+        ServerLevel level = getLevel(target);
+
+        if (level == null) {
+            return;
+        }
+
+        AttachmentSyncPayload.TargetRef ref = getRef(target);
+
+        for (AttachmentTypeImpl<?> type : AttachmentRegistryImpl.getSyncedTypes()) {
+            sendFull(target, ref, type, player, level.registryAccess());
+        }
+    }
+
+    public static void onStartSeeingChunk(LevelChunk chunk, ServerPlayer player) {
+        if (AttachmentRegistryImpl.getSyncedTypes().isEmpty()) {
+            return;
+        }
+
+        onStartSeeing(chunk, player);
+
+        for (BlockEntity blockEntity : chunk.getBlockEntities().values()) {
+            onStartSeeing(blockEntity, player);
+        }
+    }
+
+    /**
+     * Sends the attachments of a player and its level to the player, after it joined, respawned or changed levels.
+     */
+    public static void onPlayerReady(ServerPlayer player) {
+        onStartSeeing(player, player);
+        onStartSeeing(player.serverLevel(), player);
+    }
+
+    public static void onDisconnect(ServerPlayer player) {
+        PENDING.remove(player);
+    }
+
+    public static void clear() {
+        DIRTY.clear();
+        SYNCED.clear();
+        PENDING.clear();
+    }
+
+    public static void flush() {
+        if (!DIRTY.isEmpty()) {
+            for (Map.Entry<AttachmentTarget, Set<AttachmentTypeImpl<?>>> entry : DIRTY.entrySet()) {
+                AttachmentTarget target = entry.getKey();
+                ServerLevel level = getLevel(target);
+
+                if (level == null || isRemoved(target)) {
+                    SYNCED.remove(target);
+                    continue;
+                }
+
+                AttachmentSyncPayload.TargetRef ref = getRef(target);
+                Collection<ServerPlayer> viewers = getViewers(target, level);
+
+                for (AttachmentTypeImpl<?> type : entry.getValue()) {
+                    syncChange(target, ref, type, viewers, level.registryAccess());
+                }
+            }
+
+            DIRTY.clear();
+        }
+
+        if (!PENDING.isEmpty()) {
+            PENDING.forEach((player, updates) -> {
+                if (!player.hasDisconnected()) {
+                    List<AttachmentSyncPayload.TargetUpdates> targets = new ArrayList<>(updates.size());
+                    updates.forEach((ref, targetUpdates) -> targets.add(new AttachmentSyncPayload.TargetUpdates(ref, targetUpdates)));
+                    ServerPlayNetworking.send(player, new AttachmentSyncPayload(targets));
+                }
+            });
+            PENDING.clear();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <A> void syncChange(AttachmentTarget target, AttachmentSyncPayload.TargetRef ref, AttachmentTypeImpl<A> type, Collection<ServerPlayer> viewers, RegistryAccess registries) {
+        A value = target.getAttached(type);
+        Map<AttachmentTypeImpl<?>, SyncedValue> syncedValues = SYNCED.get(target);
+        SyncedValue previous = syncedValues == null ? null : syncedValues.get(type);
+        AttachmentSyncCodec<A> codec = getCodec(type);
+        AttachmentSyncCodec.Snapshot<A> current = value == null ? null : codec.snapshot(value, registries);
+        Set<UUID> recipients = new HashSet<>();
+        AttachmentSyncPayload.Update change = null;
+        boolean changeComputed = false;
+
+        for (ServerPlayer player : viewers) {
+            if (!canReceive(player) || !type.syncPredicate().test(target, player)) {
+                continue;
+            }
+
+            boolean hasPrevious = previous != null && previous.recipients().contains(player.getUUID());
+
+            if (current == null) {
+                // Players that never received a value have nothing to remove
+                if (hasPrevious) {
+                    queue(player, ref, codec.remove());
+                }
+
+                continue;
+            }
+
+            recipients.add(player.getUUID());
+
+            if (hasPrevious) {
+                if (!changeComputed) {
+                    change = codec.change((AttachmentSyncCodec.Snapshot<A>) previous.snapshot(), current, registries);
+                    changeComputed = true;
+                }
+
+                if (change != null) {
+                    queue(player, ref, change);
+                }
+            } else {
+                queue(player, ref, codec.set(current));
+            }
+        }
+
+        if (current == null) {
+            if (syncedValues != null) {
+                syncedValues.remove(type);
+            }
+        } else {
+            SYNCED.computeIfAbsent(target, t -> new IdentityHashMap<>()).put(type, new SyncedValue(current, recipients));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <A> void sendFull(AttachmentTarget target, AttachmentSyncPayload.TargetRef ref, AttachmentTypeImpl<A> type, ServerPlayer player, RegistryAccess registries) {
+        if (!type.syncPredicate().test(target, player)) {
+            return;
+        }
+
+        Map<AttachmentTypeImpl<?>, SyncedValue> syncedValues = SYNCED.get(target);
+        SyncedValue previous = syncedValues == null ? null : syncedValues.get(type);
+        AttachmentSyncCodec<A> codec = getCodec(type);
+        AttachmentSyncCodec.Snapshot<A> snapshot;
+
+        if (previous != null) {
+            // Send the value the other players have, so that a change pending for this tick can be sent to everyone as the same delta
+            snapshot = (AttachmentSyncCodec.Snapshot<A>) previous.snapshot();
+            previous.recipients().add(player.getUUID());
+        } else {
+            A value = target.getAttached(type);
+
+            if (value == null) {
+                return;
+            }
+
+            snapshot = codec.snapshot(value, registries);
+            Set<UUID> recipients = new HashSet<>();
+            recipients.add(player.getUUID());
+            SYNCED.computeIfAbsent(target, t -> new IdentityHashMap<>()).put(type, new SyncedValue(snapshot, recipients));
+        }
+
+        queue(player, ref, codec.set(snapshot));
+    }
+
+    /**
+     * Sends an attachment in full to a player that received a delta without having the value it applies to.
+     */
+    public static void onResyncRequest(ServerPlayer player, AttachmentSyncRequestPayload request) {
+        AttachmentTypeImpl<?> type = AttachmentRegistryImpl.getSyncedType(request.type());
+        AttachmentTarget target = resolve(player.serverLevel(), request.target());
+
+        // Only players that can see the target are synchronized with it
+        if (type == null || target == null || !getViewers(target, player.serverLevel()).contains(player)) {
+            return;
+        }
+
+        Map<AttachmentTypeImpl<?>, SyncedValue> syncedValues = SYNCED.get(target);
+        SyncedValue previous = syncedValues == null ? null : syncedValues.get(type);
+
+        if (previous != null) {
+            // The player must not receive deltas until it got the value in full
+            previous.recipients().remove(player.getUUID());
+        }
+
+        sendFull(target, request.target(), type, player, player.serverLevel().registryAccess());
+    }
+
+    private static <A> AttachmentSyncCodec<A> getCodec(AttachmentTypeImpl<A> type) {
+        return new AttachmentSyncCodec<>(type.identifier(), type.syncCodec());
+    }
+
+    private static void queue(ServerPlayer player, AttachmentSyncPayload.TargetRef ref, AttachmentSyncPayload.Update update) {
+        PENDING.computeIfAbsent(player, p -> new LinkedHashMap<>()).computeIfAbsent(ref, r -> new ArrayList<>()).add(update);
+    }
+
+    private static boolean canReceive(ServerPlayer player) {
+        return ServerPlayNetworking.canSend(player, AttachmentSyncPayload.TYPE);
+    }
+
+    @Nullable
+    private static ServerLevel getLevel(AttachmentTarget target) {
+        if (target instanceof Entity entity) {
+            return entity.level() instanceof ServerLevel level ? level : null;
+        } else if (target instanceof BlockEntity blockEntity) {
+            return blockEntity.getLevel() instanceof ServerLevel level ? level : null;
+        } else if (target instanceof LevelChunk chunk) {
+            return chunk.getLevel() instanceof ServerLevel level ? level : null;
+        } else if (target instanceof ServerLevel level) {
+            return level;
+        }
+
+        // Proto chunks are not visible to players
+        return null;
+    }
+
+    private static boolean isRemoved(AttachmentTarget target) {
+        if (target instanceof Entity entity) {
+            return entity.isRemoved();
+        } else if (target instanceof BlockEntity blockEntity) {
+            return blockEntity.isRemoved();
+        }
+
+        return false;
+    }
+
+    @Nullable
+    private static AttachmentTarget resolve(ServerLevel level, AttachmentSyncPayload.TargetRef ref) {
+        return switch (ref.kind()) {
+            case ENTITY -> level.getEntity((int) ref.value());
+            case BLOCK_ENTITY -> {
+                BlockPos pos = BlockPos.of(ref.value());
+                // Do not load chunks on behalf of the client
+                yield level.isLoaded(pos) ? level.getBlockEntity(pos) : null;
+            }
+            case CHUNK -> {
+                ChunkPos pos = new ChunkPos(ref.value());
+                yield level.getChunkSource().getChunkNow(pos.x, pos.z);
+            }
+            case LEVEL -> level;
+        };
+    }
+
+    private static AttachmentSyncPayload.TargetRef getRef(AttachmentTarget target) {
+        if (target instanceof Entity entity) {
+            return new AttachmentSyncPayload.TargetRef(AttachmentSyncPayload.TargetKind.ENTITY, entity.getId());
+        } else if (target instanceof BlockEntity blockEntity) {
+            return new AttachmentSyncPayload.TargetRef(AttachmentSyncPayload.TargetKind.BLOCK_ENTITY, blockEntity.getBlockPos().asLong());
+        } else if (target instanceof LevelChunk chunk) {
+            return new AttachmentSyncPayload.TargetRef(AttachmentSyncPayload.TargetKind.CHUNK, chunk.getPos().toLong());
+        }
+
+        return new AttachmentSyncPayload.TargetRef(AttachmentSyncPayload.TargetKind.LEVEL, 0L);
+    }
+
+    private static Collection<ServerPlayer> getViewers(AttachmentTarget target, ServerLevel level) {
+        if (target instanceof Entity entity) {
+            Collection<ServerPlayer> tracking = PlayerLookup.tracking(entity);
+
+            if (entity instanceof ServerPlayer player) {
+                // Players do not track themselves
+                List<ServerPlayer> viewers = new ArrayList<>(tracking.size() + 1);
+                viewers.add(player);
+                viewers.addAll(tracking);
+                return viewers;
+            }
+
+            return tracking;
+        } else if (target instanceof BlockEntity blockEntity) {
+            return PlayerLookup.tracking(blockEntity);
+        } else if (target instanceof LevelChunk chunk) {
+            return PlayerLookup.tracking(level, chunk.getPos());
+        }
+
+        return PlayerLookup.world(level);
+    }
+
+    /**
+     * @param snapshot the value last sent
+     * @param recipients the players the value was sent to, which have it as base for deltas
+     */
+    private record SyncedValue(AttachmentSyncCodec.Snapshot<?> snapshot, Set<UUID> recipients) {
+    }
+}
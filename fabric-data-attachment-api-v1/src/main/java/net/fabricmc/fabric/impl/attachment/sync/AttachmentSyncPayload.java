@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.fabricmc.fabric.impl.attachment.sync;
+
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Attachment changes sent to a player at the end of a server tick, grouped by target.
+ *
+ * <p>Values are encoded on the server once per change and shared by every recipient, and decoded by the client against its own level.
+ * Attachment type ids are written once per payload, and referenced by index from the updates.
+ */
+public record AttachmentSyncPayload(List<TargetUpdates> targets) implements CustomPacketPayload {
+    public static final Type<AttachmentSyncPayload> TYPE = new Type<>(ResourceLocation.fromNamespaceAndPath("fabric", "attachment_sync"));
+    public static final StreamCodec<FriendlyByteBuf, AttachmentSyncPayload> CODEC = CustomPacketPayload.codec(AttachmentSyncPayload::write, AttachmentSyncPayload::read);
+
+    private static AttachmentSyncPayload read(FriendlyByteBuf buf) {
+        int typeCount = buf.readVarInt();
+        List<ResourceLocation> typeIds = new ArrayList<>(typeCount);
+
+        for (int i = 0; i < typeCount; i++) {
+            typeIds.add(buf.readResourceLocation());
+        }
+
+        int targetCount = buf.readVarInt();
+        List<TargetUpdates> targets = new ArrayList<>(targetCount);
+
+        for (int i = 0; i < targetCount; i++) {
+            TargetRef target = new TargetRef(buf.readEnum(TargetKind.class), buf.readVarLong());
+            int updateCount = buf.readVarInt();
+            List<Update> updates = new ArrayList<>(updateCount);
+
+            for (int j = 0; j < updateCount; j++) {
+                ResourceLocation type = typeIds.get(buf.readVarInt());
+                Operation operation = buf.readEnum(Operation.class);
+                updates.add(new Update(type, operation, operation == Operation.REMOVE ? null : buf.readByteArray()));
+            }
+
+            targets.add(new TargetUpdates(target, updates));
+        }
+
+        return new AttachmentSyncPayload(targets);
+    }
+
+    private void write(FriendlyByteBuf buf) {
+        Map<ResourceLocation, Integer> typeIndices = new HashMap<>();
+        List<ResourceLocation> typeIds = new ArrayList<>();
+
+        for (TargetUpdates target : targets) {
+            for (Update update : target.updates()) {
+                typeIndices.computeIfAbsent(update.type(), id -> {
+                    typeIds.add(id);
+                    return typeIds.size() - 1;
+                });
+            }
+        }
+
+        buf.writeVarInt(typeIds.size());
+        typeIds.forEach(buf::writeResourceLocation);
+        buf.writeVarInt(targets.size());
+
+        for (TargetUpdates target : targets) {
+            buf.writeEnum(target.target().kind());
+            buf.writeVarLong(target.target().value());
+            buf.writeVarInt(target.updates().size());
+
+            for (Update update : target.updates()) {
+                buf.writeVarInt(typeIndices.get(update.type()));
+                buf.writeEnum(update.operation());
+
+                if (update.operation() != Operation.REMOVE) {
+                    buf.writeByteArray(update.data());
+                }
+            }
+        }
+    }
+
+    @Override
+    public Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+
+    public enum TargetKind {
+        ENTITY,
+        BLOCK_ENTITY,
+        CHUNK,
+        LEVEL
+    }
+
+    public enum Operation {
+        /**
+         * The value is encoded in full with the sync codec.
+         */
+        SET,
+        /**
+         * The value is encoded as a delta to the value the player received before.
+         */
+        DELTA,
+        REMOVE
+    }
+
+    /**
+     * Identifies a target on the client.
+     *
+     * @param value the entity id, packed block position, packed chunk position, or {@code 0} for the level of the player
+     */
+    public record TargetRef(TargetKind kind, long value) {
+    }
+
+    public record Update(ResourceLocation type, Operation operation, @Nullable byte[] data) {
+    }
+
+    public record TargetUpdates(TargetRef target, List<Update> updates) {
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.attachment.sync;
+
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+
+/**
+ * Sent by a client that received a delta for an attachment it has no value of, to get the value in full instead.
+ */
+public record AttachmentSyncRequestPayload(AttachmentSyncPayload.TargetRef target, ResourceLocation type) implements CustomPacketPayload {
+    public static final Type<AttachmentSyncRequestPayload> TYPE = new Type<>(ResourceLocation.fromNamespaceAndPath("fabric", "attachment_sync_request"));
+    public static final StreamCodec<FriendlyByteBuf, AttachmentSyncRequestPayload> CODEC = CustomPacketPayload.codec(AttachmentSyncRequestPayload::write, AttachmentSyncRequestPayload::read);
+
+    private static AttachmentSyncRequestPayload read(FriendlyByteBuf buf) {
+        AttachmentSyncPayload.TargetRef target = new AttachmentSyncPayload.TargetRef(buf.readEnum(AttachmentSyncPayload.TargetKind.class), buf.readVarLong());
+        return new AttachmentSyncRequestPayload(target, buf.readResourceLocation());
+    }
+
+    private void write(FriendlyByteBuf buf) {
+        buf.writeEnum(target.kind());
+        buf.writeVarLong(target.value());
+        buf.writeResourceLocation(type);
+    }
+
+    @Override
+    public Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+}
@@ -2,7 +2,9 @@ package net.fabricmc.fabric.mixin.attachment;
 
 import net.neoforged.neoforge.attachment.AttachmentHolder;
 import net.neoforged.neoforge.attachment.AttachmentType;
+import org.jetbrains.annotations.Nullable;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
 import org.spongepowered.asm.mixin.gen.Invoker;
 
 import java.util.Map;
@@ -11,4 +13,11 @@ import java.util.Map;
 public interface AttachmentHolderAccessor {
     @Invoker
     Map<AttachmentType<?>, Object> invokeGetAttachmentMap();
+
+    /**
+     * Unlike {@link #invokeGetAttachmentMap()}, does not create the map when absent.
+     */
+    @Nullable
+    @Accessor("attachments")
+    Map<AttachmentType<?>, Object> getAttachmentsOrNull();
 }
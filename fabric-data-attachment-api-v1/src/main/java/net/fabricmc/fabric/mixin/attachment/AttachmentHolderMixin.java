@@ -0,0 +1,81 @@
+package net.fabricmc.fabric.mixin.attachment;
+
+import com.llamalad7.mixinextras.injector.ModifyReturnValue;
+import com.llamalad7.mixinextras.sugar.Local;
+import net.fabricmc.fabric.impl.attachment.AttachmentRegistryImpl;
+import net.fabricmc.fabric.impl.attachment.DenseAttachmentMap;
+import net.fabricmc.fabric.impl.attachment.LazyAttachmentSerializer;
+import net.neoforged.neoforge.attachment.AttachmentHolder;
+import net.neoforged.neoforge.attachment.AttachmentType;
+import org.jetbrains.annotations.Nullable;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import java.util.Map;
+import java.util.Optional;
+
+@Mixin(AttachmentHolder.class)
+public abstract class AttachmentHolderMixin {
+    @Shadow
+    @Nullable
+    Map<AttachmentType<?>, Object> attachments;
+
+    @Shadow
+    public abstract <T> T getData(AttachmentType<T> type);
+
+    @Inject(method = "getAttachmentMap", at = @At("HEAD"))
+    private void createDenseAttachmentMap(CallbackInfoReturnable<Map<AttachmentType<?>, Object>> cir) {
+        if (this.attachments == null && AttachmentRegistryImpl.getDenseSlotCount() > 0) {
+            this.attachments = new DenseAttachmentMap(AttachmentRegistryImpl::getDenseSlot);
+        }
+    }
+
+    // Lazily decoded attachments are stored as pending tags, which must be decoded before NeoForge hands them out
+
+    @ModifyReturnValue(method = "getData(Lnet/neoforged/neoforge/attachment/AttachmentType;)Ljava/lang/Object;", at = @At("RETURN"))
+    private Object decodePendingData(Object value, @Local(argsOnly = true) AttachmentType<?> type) {
+        if (value instanceof LazyAttachmentSerializer.Pending pending) {
+            Object decoded = fabric_storeDecoded(type, pending);
+            // Values that failed to decode were removed, so this creates the default value
+            return decoded != null ? decoded : getData(type);
+        }
+
+        return value;
+    }
+
+    @ModifyReturnValue(method = "getExistingData(Lnet/neoforged/neoforge/attachment/AttachmentType;)Ljava/util/Optional;", at = @At("RETURN"))
+    private Optional<?> decodePendingExistingData(Optional<?> value, @Local(argsOnly = true) AttachmentType<?> type) {
+        if (value.isPresent() && value.get() instanceof LazyAttachmentSerializer.Pending pending) {
+            return Optional.ofNullable(fabric_storeDecoded(type, pending));
+        }
+
+        return value;
+    }
+
+    @ModifyReturnValue(method = {
+            "setData(Lnet/neoforged/neoforge/attachment/AttachmentType;Ljava/lang/Object;)Ljava/lang/Object;",
+            "removeData(Lnet/neoforged/neoforge/attachment/AttachmentType;)Ljava/lang/Object;"
+    }, at = @At("RETURN"))
+    private Object decodePendingPrevious(Object previous) {
+        return LazyAttachmentSerializer.decodeIfPending(previous);
+    }
+
+    @Unique
+    @Nullable
+    private Object fabric_storeDecoded(AttachmentType<?> type, LazyAttachmentSerializer.Pending pending) {
+        Object decoded = pending.decode();
+
+        // Replaced in the map directly, as decoding does not change the attachment and must not mark the holder as changed
+        if (decoded != null) {
+            this.attachments.put(type, decoded);
+        } else {
+            this.attachments.remove(type);
+        }
+
+        return decoded;
+    }
+}
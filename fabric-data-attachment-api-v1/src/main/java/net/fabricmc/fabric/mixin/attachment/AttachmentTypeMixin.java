@@ -0,0 +1,22 @@
+package net.fabricmc.fabric.mixin.attachment;
+
+import net.fabricmc.fabric.impl.attachment.AttachmentTypeExtensions;
+import net.neoforged.neoforge.attachment.AttachmentType;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+
+@Mixin(AttachmentType.class)
+public class AttachmentTypeMixin implements AttachmentTypeExtensions {
+    @Unique
+    private int fabric_transferFlags;
+
+    @Override
+    public int fabric_getTransferFlags() {
+        return this.fabric_transferFlags;
+    }
+
+    @Override
+    public void fabric_setTransferFlags(int flags) {
+        this.fabric_transferFlags = flags;
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.test.attachment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+import net.fabricmc.fabric.api.attachment.v1.AttachmentDeltaCodec;
+import net.fabricmc.fabric.impl.attachment.sync.AttachmentSyncCodec;
+import net.fabricmc.fabric.impl.attachment.sync.AttachmentSyncPayload;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.resources.ResourceLocation;
+
+public class AttachmentSyncTests {
+	private static final ResourceLocation TYPE = ResourceLocation.fromNamespaceAndPath("fabric", "sync_test");
+	private static final RegistryAccess REGISTRIES = RegistryAccess.EMPTY;
+	private static final AttachmentSyncCodec<Map<String, Integer>> MAP_CODEC = new AttachmentSyncCodec<>(TYPE, new MapDeltaCodec());
+	private static final AttachmentSyncCodec<Integer> INT_CODEC = new AttachmentSyncCodec<>(TYPE, ByteBufCodecs.VAR_INT);
+
+	@Test
+	void setRoundTrip() {
+		Map<String, Integer> value = new HashMap<>(Map.of("a", 1, "b", 2));
+		AttachmentSyncPayload.Update update = MAP_CODEC.set(MAP_CODEC.snapshot(value, REGISTRIES));
+
+		assertEquals(AttachmentSyncPayload.Operation.SET, update.operation());
+		assertEquals(value, MAP_CODEC.apply(null, update, REGISTRIES));
+	}
+
+	@Test
+	void deltaRoundTrip() {
+		Map<String, Integer> value = new HashMap<>(Map.of("a", 1, "b", 2));
+		AttachmentSyncCodec.Snapshot<Map<String, Integer>> previous = MAP_CODEC.snapshot(value, REGISTRIES);
+		Map<String, Integer> received = MAP_CODEC.apply(null, MAP_CODEC.set(previous), REGISTRIES);
+
+		value.put("b", 3);
+		value.remove("a");
+		value.put("c", 4);
+
+		AttachmentSyncPayload.Update update = Objects.requireNonNull(MAP_CODEC.change(previous, MAP_CODEC.snapshot(value, REGISTRIES), REGISTRIES));
+
+		assertEquals(AttachmentSyncPayload.Operation.DELTA, update.operation());
+		assertEquals(value, MAP_CODEC.apply(received, update, REGISTRIES));
+	}
+
+	@Test
+	void detectsInPlaceMutation() {
+		Map<String, Integer> value = new HashMap<>(Map.of("a", 1));
+		AttachmentSyncCodec.Snapshot<Map<String, Integer>> previous = MAP_CODEC.snapshot(value, REGISTRIES);
+
+		// The snapshot must not alias the attached value, which is mutated in place and set again
+		assertNotSame(value, previous.value());
+		value.put("a", 2);
+
+		AttachmentSyncPayload.Update update = Objects.requireNonNull(MAP_CODEC.change(previous, MAP_CODEC.snapshot(value, REGISTRIES), REGISTRIES));
+
+		assertEquals(Map.of("a", 2), MAP_CODEC.apply(new HashMap<>(Map.of("a", 1)), update, REGISTRIES));
+	}
+
+	@Test
+	void skipsUnchangedValues() {
+		Map<String, Integer> value = new HashMap<>(Map.of("a", 1));
+		AttachmentSyncCodec.Snapshot<Map<String, Integer>> previous = MAP_CODEC.snapshot(value, REGISTRIES);
+
+		assertNull(MAP_CODEC.change(previous, MAP_CODEC.snapshot(new HashMap<>(value), REGISTRIES), REGISTRIES));
+	}
+
+	@Test
+	void sendsChangesInFullWithoutDeltaCodec() {
+		AttachmentSyncPayload.Update update = Objects.requireNonNull(INT_CODEC.change(INT_CODEC.snapshot(1, REGISTRIES), INT_CODEC.snapshot(2, REGISTRIES), REGISTRIES));
+
+		assertEquals(AttachmentSyncPayload.Operation.SET, update.operation());
+		assertEquals(2, INT_CODEC.apply(1, update, REGISTRIES));
+	}
+
+	@Test
+	void removeRoundTrip() {
+		AttachmentSyncPayload.Update update = MAP_CODEC.remove();
+
+		assertEquals(AttachmentSyncPayload.Operation.REMOVE, update.operation());
+		assertNull(MAP_CODEC.apply(new HashMap<>(Map.of("a", 1)), update, REGISTRIES));
+	}
+
+	@Test
+	void rejectsDeltaWithoutBase() {
+		Map<String, Integer> value = new HashMap<>(Map.of("a", 1));
+		AttachmentSyncCodec.Snapshot<Map<String, Integer>> previous = MAP_CODEC.snapshot(value, REGISTRIES);
+		value.put("a", 2);
+		AttachmentSyncPayload.Update update = Objects.requireNonNull(MAP_CODEC.change(previous, MAP_CODEC.snapshot(value, REGISTRIES), REGISTRIES));
+
+		assertThrows(IllegalStateException.class, () -> MAP_CODEC.apply(null, update, REGISTRIES));
+	}
+
+	@Test
+	void payloadRoundTrip() {
+		AttachmentSyncPayload.TargetRef target = new AttachmentSyncPayload.TargetRef(AttachmentSyncPayload.TargetKind.ENTITY, 42);
+		AttachmentSyncPayload.Update set = INT_CODEC.set(INT_CODEC.snapshot(7, REGISTRIES));
+		AttachmentSyncPayload payload = new AttachmentSyncPayload(List.of(new AttachmentSyncPayload.TargetUpdates(target, List.of(set, INT_CODEC.remove()))));
+		RegistryFriendlyByteBuf buf = new RegistryFriendlyByteBuf(Unpooled.buffer(), REGISTRIES);
+
+		AttachmentSyncPayload.CODEC.encode(buf, payload);
+		AttachmentSyncPayload decoded = AttachmentSyncPayload.CODEC.decode(buf);
+		AttachmentSyncPayload.TargetUpdates updates = decoded.targets().get(0);
+
+		assertEquals(target, updates.target());
+		assertEquals(7, INT_CODEC.apply(null, updates.updates().get(0), REGISTRIES));
+		assertNull(INT_CODEC.apply(7, updates.updates().get(1), REGISTRIES));
+	}
+
+	/**
+	 * Sends the changed and removed entries of a map.
+	 */
+	private static class MapDeltaCodec implements AttachmentDeltaCodec<Map<String, Integer>> {
+		private static final StreamCodec<RegistryFriendlyByteBuf, Map<String, Integer>> FULL = ByteBufCodecs.<RegistryFriendlyByteBuf, String, Integer, Map<String, Integer>>map(HashMap::new, ByteBufCodecs.STRING_UTF8, ByteBufCodecs.VAR_INT);
+
+		@Override
+		public Map<String, Integer> decode(RegistryFriendlyByteBuf buf) {
+			return FULL.decode(buf);
+		}
+
+		@Override
+		public void encode(RegistryFriendlyByteBuf buf, Map<String, Integer> value) {
+			FULL.encode(buf, value);
+		}
+
+		@Override
+		public void encodeDelta(RegistryFriendlyByteBuf buf, Map<String, Integer> previous, Map<String, Integer> value) {
+			Map<String, Integer> changed = new HashMap<>();
+			value.forEach((key, entry) -> {
+				if (!entry.equals(previous.get(key))) {
+					changed.put(key, entry);
+				}
+			});
+			FULL.encode(buf, changed);
+
+			buf.writeCollection(previous.keySet().stream().filter(key -> !value.containsKey(key)).toList(), (b, key) -> b.writeUtf(key));
+		}
+
+		@Override
+		public Map<String, Integer> decodeDelta(RegistryFriendlyByteBuf buf, Map<String, Integer> previous) {
+			Map<String, Integer> value = new HashMap<>(previous);
+			value.putAll(FULL.decode(buf));
+			buf.readList(b -> b.readUtf()).forEach(value::remove);
+			return value;
+		}
+	}
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.test.attachment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import net.fabricmc.fabric.impl.attachment.AttachmentTypeImpl;
+import net.fabricmc.fabric.impl.attachment.DenseAttachmentMap;
+import net.neoforged.neoforge.attachment.AttachmentType;
+
+public class DenseAttachmentMapTests {
+	private static final AttachmentType<String> DENSE = AttachmentType.builder(() -> "").build();
+	private static final AttachmentType<String> OTHER_DENSE = AttachmentType.builder(() -> "").build();
+	private static final AttachmentType<String> SPARSE = AttachmentType.builder(() -> "").build();
+
+	private DenseAttachmentMap map;
+
+	@BeforeEach
+	void setUp() {
+		map = new DenseAttachmentMap(type -> type == DENSE ? 0 : type == OTHER_DENSE ? 1 : AttachmentTypeImpl.NO_SLOT);
+		map.put(DENSE, "a");
+		map.put(OTHER_DENSE, "b");
+		map.put(SPARSE, "c");
+	}
+
+	private void assertMirrored() {
+		assertEquals(map.get(DENSE), map.getDense(0));
+		assertEquals(map.get(OTHER_DENSE), map.getDense(1));
+	}
+
+	@Test
+	void putAndRemove() {
+		assertEquals("a", map.getDense(0));
+		map.put(DENSE, "d");
+		assertEquals("d", map.getDense(0));
+		map.remove(DENSE);
+		assertNull(map.getDense(0));
+		assertMirrored();
+	}
+
+	@Test
+	void entryIteratorRemove() {
+		Iterator<Map.Entry<AttachmentType<?>, Object>> iterator = map.entrySet().iterator();
+
+		while (iterator.hasNext()) {
+			if (iterator.next().getKey() == DENSE) {
+				iterator.remove();
+			}
+		}
+
+		assertNull(map.getDense(0));
+		assertMirrored();
+	}
+
+	@Test
+	void keySetAndValuesRemove() {
+		map.keySet().remove(DENSE);
+		assertNull(map.getDense(0));
+
+		map.values().remove("b");
+		assertNull(map.getDense(1));
+
+		map.put(DENSE, "d");
+		map.keySet().removeIf(type -> type == DENSE);
+		assertNull(map.getDense(0));
+		assertMirrored();
+	}
+
+	@Test
+	void entrySetRemove() {
+		map.entrySet().remove(Map.entry(DENSE, "a"));
+		assertNull(map.getDense(0));
+
+		map.entrySet().removeIf(entry -> entry.getKey() == OTHER_DENSE);
+		assertNull(map.getDense(1));
+		assertEquals(1, map.size());
+	}
+
+	@Test
+	void entrySetValue() {
+		for (Map.Entry<AttachmentType<?>, Object> entry : map.entrySet()) {
+			entry.setValue(entry.getValue() + "!");
+		}
+
+		assertEquals("a!", map.getDense(0));
+		assertEquals("b!", map.getDense(1));
+		assertEquals("c!", map.get(SPARSE));
+	}
+
+	@Test
+	void conditionalMutators() {
+		map.remove(DENSE, "a");
+		assertNull(map.getDense(0));
+
+		map.putIfAbsent(DENSE, "d");
+		assertEquals("d", map.getDense(0));
+
+		map.replace(DENSE, "d", "e");
+		assertEquals("e", map.getDense(0));
+
+		map.replace(OTHER_DENSE, "f");
+		assertEquals("f", map.getDense(1));
+		assertMirrored();
+	}
+
+	@Test
+	void computeMutators() {
+		map.compute(DENSE, (type, value) -> value + "1");
+		assertEquals("a1", map.getDense(0));
+
+		map.computeIfPresent(DENSE, (type, value) -> null);
+		assertNull(map.getDense(0));
+
+		map.computeIfAbsent(DENSE, type -> "g");
+		assertEquals("g", map.getDense(0));
+
+		map.merge(OTHER_DENSE, "h", (previous, value) -> previous + (String) value);
+		assertEquals("bh", map.getDense(1));
+		assertMirrored();
+	}
+
+	@Test
+	void clearAndReplaceAll() {
+		map.replaceAll((type, value) -> value + "?");
+		assertEquals("a?", map.getDense(0));
+		assertEquals("b?", map.getDense(1));
+
+		map.clear();
+		assertNull(map.getDense(0));
+		assertNull(map.getDense(1));
+	}
+
+	@Test
+	void bulkMutators() {
+		map.putAll(Map.of(DENSE, "i", OTHER_DENSE, "j"));
+		assertEquals("i", map.getDense(0));
+		assertEquals("j", map.getDense(1));
+
+		map.keySet().retainAll(Set.of(SPARSE));
+		assertNull(map.getDense(0));
+		assertNull(map.getDense(1));
+		assertEquals(1, map.size());
+	}
+}
@@ -16,9 +16,12 @@
 
 package net.fabricmc.fabric.api.loot.v3;
 
+import java.util.Objects;
+
 import org.jetbrains.annotations.Nullable;
 import net.fabricmc.fabric.api.event.Event;
 import net.fabricmc.fabric.api.event.EventFactory;
+import net.fabricmc.fabric.impl.loot.LootTableEventsImpl;
 import net.minecraft.core.HolderLookup;
 import net.minecraft.core.Registry;
 import net.minecraft.resources.ResourceKey;
@@ -35,18 +38,12 @@ public final class LootTableEvents {
 	/**
 	 * This event can be used to replace loot tables.
 	 * If a loot table is replaced, the iteration will stop for that loot table.
+	 *
+	 * <p>Use {@link #replaceEvent(ResourceKey)} to get the event for a specific loot table,
+	 * whose listeners are only invoked for that loot table.
+	 * This event is invoked after that more specific event, unless it replaced the loot table.
 	 */
-	public static final Event<Replace> REPLACE = EventFactory.createArrayBacked(Replace.class, listeners -> (key, original, source, registries) -> {
-		for (Replace listener : listeners) {
-			@Nullable LootTable replaced = listener.replaceLootTable(key, original, source, registries);
-
-			if (replaced != null) {
-				return replaced;
-			}
-		}
-
-		return null;
-	});
+	public static final Event<Replace> REPLACE = EventFactory.createArrayBacked(Replace.class, LootTableEventsImpl::createReplaceInvoker);
 
 	/**
 	 * This event can be used to modify loot tables.
@@ -55,6 +52,11 @@ public final class LootTableEvents {
 	 * <p>You can also modify loot tables that are created by {@link #REPLACE}.
 	 * They have the loot table source {@link LootTableSource#REPLACED}.
 	 *
+	 * <p>Use {@link #modifyEvent(ResourceKey)} to get the event for a specific loot table,
+	 * whose listeners are only invoked for that loot table.
+	 * This event is invoked after that more specific event.
+	 * Listeners that only modify known loot tables should prefer it, as it avoids invoking them for every loaded loot table.
+	 *
 	 * <h2>Example: adding diamonds to the cobblestone loot table</h2>
 	 * We'll add a new diamond {@linkplain net.minecraft.world.level.storage.loot.LootPool loot pool} to the cobblestone loot table
 	 * that will be dropped alongside the original cobblestone loot pool.
@@ -79,11 +81,42 @@ public final class LootTableEvents {
 	 * });
 	 * }
 	 */
-	public static final Event<Modify> MODIFY = EventFactory.createArrayBacked(Modify.class, listeners -> (key, tableBuilder, source, registries) -> {
-		for (Modify listener : listeners) {
-			listener.modifyLootTable(key, tableBuilder, source, registries);
-		}
-	});
+	public static final Event<Modify> MODIFY = EventFactory.createArrayBacked(Modify.class, LootTableEventsImpl::createModifyInvoker);
+
+	/**
+	 * Returns the replace event for a specific loot table. Its listeners are only invoked for that loot table,
+	 * before the listeners of {@link #REPLACE}.
+	 *
+	 * @param key the key of the loot table to replace
+	 * @return the event
+	 */
+	public static Event<Replace> replaceEvent(ResourceKey<LootTable> key) {
+		Objects.requireNonNull(key, "Loot table key cannot be null");
+
+		return LootTableEventsImpl.getOrCreateReplaceEvent(key);
+	}
+
+	/**
+	 * Returns the modify event for a specific loot table. Its listeners are only invoked for that loot table,
+	 * before the listeners of {@link #MODIFY}.
+	 *
+	 * <h2>Example: adding diamonds to the cobblestone loot table</h2>
+	 * {@snippet :
+	 * LootTableEvents.modifyEvent(Blocks.COBBLESTONE.getLootTable()).register((key, tableBuilder, source, registries) -> {
+	 *     if (source.isBuiltin()) {
+	 *         tableBuilder.withPool(LootPool.lootPool().add(LootItem.lootTableItem(Items.DIAMOND)));
+	 *     }
+	 * });
+	 * }
+	 *
+	 * @param key the key of the loot table to modify
+	 * @return the event
+	 */
+	public static Event<Modify> modifyEvent(ResourceKey<LootTable> key) {
+		Objects.requireNonNull(key, "Loot table key cannot be null");
+
+		return LootTableEventsImpl.getOrCreateModifyEvent(key);
+	}
 
 	/**
 	 * This event can be used for post-processing after all loot tables have been loaded and modified by Fabric.
@@ -94,6 +127,24 @@ public final class LootTableEvents {
 		}
 	});
 
+	/**
+	 * A marker for {@link Replace} and {@link Modify} listeners that can be invoked concurrently for different loot tables.
+	 * They must not mutate shared state without synchronization, nor depend on the order in which loot tables are processed.
+	 *
+	 * <p>When the {@code fabric-api.loot.parallel-modification} system property is set to {@code true}
+	 * and every listener of the replace and modify events is marked as thread-safe, loot tables are
+	 * replaced and modified in parallel. Otherwise, they are processed one at a time as usual.
+	 *
+	 * <p>A lambda listener can be marked with an intersection cast:
+	 * {@snippet :
+	 * LootTableEvents.MODIFY.register((LootTableEvents.Modify & LootTableEvents.ThreadSafe) (key, tableBuilder, source, registries) -> {
+	 *     // ...
+	 * });
+	 * }
+	 */
+	public interface ThreadSafe {
+	}
+
 	@FunctionalInterface
 	public interface Replace {
 		/**
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.loot;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jetbrains.annotations.Nullable;
+import net.fabricmc.fabric.api.event.Event;
+import net.fabricmc.fabric.api.event.EventFactory;
+import net.fabricmc.fabric.api.loot.v3.LootTableEvents;
+import net.fabricmc.fabric.api.loot.v3.LootTableSource;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.storage.loot.LootTable;
+
+public final class LootTableEventsImpl {
+	public static final String PARALLEL_MODIFICATION_PROPERTY = "fabric-api.loot.parallel-modification";
+	private static final Map<ResourceKey<LootTable>, Event<LootTableEvents.Replace>> REPLACE_EVENT_MAP = new ConcurrentHashMap<>();
+	private static final Map<ResourceKey<LootTable>, Event<LootTableEvents.Modify>> MODIFY_EVENT_MAP = new ConcurrentHashMap<>();
+
+	private LootTableEventsImpl() {
+	}
+
+	public static Event<LootTableEvents.Replace> getOrCreateReplaceEvent(ResourceKey<LootTable> key) {
+		return REPLACE_EVENT_MAP.computeIfAbsent(key, k -> EventFactory.createArrayBacked(LootTableEvents.Replace.class, LootTableEventsImpl::createReplaceInvoker));
+	}
+
+	@Nullable
+	public static Event<LootTableEvents.Replace> getReplaceEvent(ResourceKey<LootTable> key) {
+		return REPLACE_EVENT_MAP.get(key);
+	}
+
+	public static Event<LootTableEvents.Modify> getOrCreateModifyEvent(ResourceKey<LootTable> key) {
+		return MODIFY_EVENT_MAP.computeIfAbsent(key, k -> EventFactory.createArrayBacked(LootTableEvents.Modify.class, LootTableEventsImpl::createModifyInvoker));
+	}
+
+	@Nullable
+	public static Event<LootTableEvents.Modify> getModifyEvent(ResourceKey<LootTable> key) {
+		return MODIFY_EVENT_MAP.get(key);
+	}
+
+	/**
+	 * Whether loot tables may be replaced and modified in parallel, which requires all listeners to be {@linkplain LootTableEvents.ThreadSafe thread-safe}.
+	 * The invoker of an event is itself marked as thread-safe when all of its listeners are.
+	 *
+	 * <p>The system property is read on every reload rather than once, so that it can also be set after the game started.
+	 */
+	public static boolean canModifyInParallel() {
+		if (!Boolean.getBoolean(PARALLEL_MODIFICATION_PROPERTY)) return false;
+		if (!(LootTableEvents.REPLACE.invoker() instanceof LootTableEvents.ThreadSafe)) return false;
+		if (!(LootTableEvents.MODIFY.invoker() instanceof LootTableEvents.ThreadSafe)) return false;
+
+		for (Event<LootTableEvents.Replace> event : REPLACE_EVENT_MAP.values()) {
+			if (!(event.invoker() instanceof LootTableEvents.ThreadSafe)) return false;
+		}
+
+		for (Event<LootTableEvents.Modify> event : MODIFY_EVENT_MAP.values()) {
+			if (!(event.invoker() instanceof LootTableEvents.ThreadSafe)) return false;
+		}
+
+		return true;
+	}
+
+	public static LootTableEvents.Replace createReplaceInvoker(LootTableEvents.Replace[] listeners) {
+		if (allThreadSafe(listeners)) {
+			return (LootTableEvents.Replace & LootTableEvents.ThreadSafe) (key, original, source, registries) -> replace(listeners, key, original, source, registries);
+		}
+
+		return (key, original, source, registries) -> replace(listeners, key, original, source, registries);
+	}
+
+	public static LootTableEvents.Modify createModifyInvoker(LootTableEvents.Modify[] listeners) {
+		if (allThreadSafe(listeners)) {
+			return (LootTableEvents.Modify & LootTableEvents.ThreadSafe) (key, tableBuilder, source, registries) -> modify(listeners, key, tableBuilder, source, registries);
+		}
+
+		return (key, tableBuilder, source, registries) -> modify(listeners, key, tableBuilder, source, registries);
+	}
+
+	@Nullable
+	private static LootTable replace(LootTableEvents.Replace[] listeners, ResourceKey<LootTable> key, LootTable original, LootTableSource source, HolderLookup.Provider registries) {
+		for (LootTableEvents.Replace listener : listeners) {
+			@Nullable LootTable replaced = listener.replaceLootTable(key, original, source, registries);
+
+			if (replaced != null) {
+				return replaced;
+			}
+		}
+
+		return null;
+	}
+
+	private static void modify(LootTableEvents.Modify[] listeners, ResourceKey<LootTable> key, LootTable.Builder tableBuilder, LootTableSource source, HolderLookup.Provider registries) {
+		for (LootTableEvents.Modify listener : listeners) {
+			listener.modifyLootTable(key, tableBuilder, source, registries);
+		}
+	}
+
+	private static boolean allThreadSafe(Object[] listeners) {
+		for (Object listener : listeners) {
+			if (!(listener instanceof LootTableEvents.ThreadSafe)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+}
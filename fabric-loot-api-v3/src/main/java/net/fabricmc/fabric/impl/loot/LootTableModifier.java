@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.loot;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import net.fabricmc.fabric.api.event.Event;
+import net.fabricmc.fabric.api.loot.v3.FabricLootTableBuilder;
+import net.fabricmc.fabric.api.loot.v3.LootTableEvents;
+import net.fabricmc.fabric.api.loot.v3.LootTableSource;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.storage.loot.LootTable;
+
+/**
+ * Invokes {@link LootTableEvents#REPLACE} and {@link LootTableEvents#MODIFY} for the loaded loot tables,
+ * either one at a time while they are parsed, or all together in parallel once they are all parsed.
+ */
+public final class LootTableModifier {
+	/**
+	 * The executor parsing the loot tables on the current thread, if parallel modification is possible.
+	 */
+	public static final ThreadLocal<Executor> EXECUTOR = new ThreadLocal<>();
+	/**
+	 * The loot tables left to modify in parallel once all loot tables are parsed on the current thread.
+	 */
+	public static final ThreadLocal<List<PendingTable>> PENDING_TABLES = new ThreadLocal<>();
+
+	private LootTableModifier() {
+	}
+
+	public static LootTable modify(LootTable table, ResourceKey<LootTable> key, LootTableSource source, HolderLookup.Provider registries) {
+		// Invoke the REPLACE events for the current loot table, the one specific to it first.
+		Event<LootTableEvents.Replace> keyedReplace = LootTableEventsImpl.getReplaceEvent(key);
+		LootTable replacement = keyedReplace != null ? keyedReplace.invoker().replaceLootTable(key, table, source, registries) : null;
+
+		if (replacement == null) {
+			replacement = LootTableEvents.REPLACE.invoker().replaceLootTable(key, table, source, registries);
+		}
+
+		if (replacement != null) {
+			// Set the loot table to MODIFY to be the replacement loot table.
+			// The MODIFY event will also see it as a replaced loot table via the source.
+			table = replacement;
+			source = LootTableSource.REPLACED;
+		}
+
+		// Turn the current table into a modifiable builder and invoke the MODIFY events.
+		LootTable.Builder builder = FabricLootTableBuilder.copyOf(table);
+		Event<LootTableEvents.Modify> keyedModify = LootTableEventsImpl.getModifyEvent(key);
+
+		if (keyedModify != null) {
+			keyedModify.invoker().modifyLootTable(key, builder, source, registries);
+		}
+
+		LootTableEvents.MODIFY.invoker().modifyLootTable(key, builder, source, registries);
+
+		LootTable newTable = builder.build();
+		ResourceLocation lootTableId = table.getLootTableId();
+
+		if (lootTableId != null) {
+			newTable.setLootTableId(lootTableId);
+		}
+
+		return newTable;
+	}
+
+	/**
+	 * Modifies the pending loot tables on the executor, with the help of the current thread, then registers them in the order of their ids.
+	 * The current thread takes tables to modify just like the executor tasks do, so that the work completes even if the executor is busy.
+	 */
+	public static void modifyInParallel(List<PendingTable> tables, Executor executor) {
+		AtomicInteger nextTable = new AtomicInteger();
+		CountDownLatch remainingTables = new CountDownLatch(tables.size());
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+
+		Runnable worker = () -> {
+			int index;
+
+			while ((index = nextTable.getAndIncrement()) < tables.size()) {
+				try {
+					tables.get(index).modify();
+				} catch (Throwable t) {
+					failure.compareAndSet(null, t);
+				} finally {
+					remainingTables.countDown();
+				}
+			}
+		};
+
+		int helpers = Math.min(tables.size(), Runtime.getRuntime().availableProcessors()) - 1;
+
+		try {
+			for (int i = 0; i < helpers; i++) {
+				executor.execute(worker);
+			}
+		} catch (RejectedExecutionException e) {
+			// The current thread will modify the remaining tables
+		}
+
+		worker.run();
+
+		try {
+			remainingTables.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while modifying loot tables", e);
+		}
+
+		if (failure.get() != null) {
+			if (failure.get() instanceof RuntimeException exception) throw exception;
+			if (failure.get() instanceof Error error) throw error;
+			throw new IllegalStateException("Failed to modify loot tables", failure.get());
+		}
+
+		List<PendingTable> sortedTables = new ArrayList<>(tables);
+		sortedTables.sort(Comparator.comparing(table -> table.key().location()));
+
+		for (PendingTable table : sortedTables) {
+			table.register();
+		}
+	}
+
+	/**
+	 * A parsed loot table waiting to be modified and registered. Its source and registries are captured on the parsing thread.
+	 */
+	public static final class PendingTable {
+		private final ResourceKey<LootTable> key;
+		private final LootTableSource source;
+		private final HolderLookup.Provider registries;
+		private final Consumer<LootTable> registrar;
+		private LootTable table;
+
+		public PendingTable(ResourceKey<LootTable> key, LootTableSource source, HolderLookup.Provider registries, LootTable table, Consumer<LootTable> registrar) {
+			this.key = key;
+			this.source = source;
+			this.registries = registries;
+			this.table = table;
+			this.registrar = registrar;
+		}
+
+		public ResourceKey<LootTable> key() {
+			return key;
+		}
+
+		void modify() {
+			table = LootTableModifier.modify(table, key, source, registries);
+		}
+
+		void register() {
+			registrar.accept(table);
+		}
+	}
+}
@@ -16,13 +16,17 @@
 
 package net.fabricmc.fabric.mixin.loot;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.WeakHashMap;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import com.google.gson.JsonElement;
 import com.llamalad7.mixinextras.injector.wrapoperation.Operation;
@@ -35,9 +39,10 @@ import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Coerce;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
-import net.fabricmc.fabric.api.loot.v3.FabricLootTableBuilder;
 import net.fabricmc.fabric.api.loot.v3.LootTableEvents;
 import net.fabricmc.fabric.api.loot.v3.LootTableSource;
+import net.fabricmc.fabric.impl.loot.LootTableEventsImpl;
+import net.fabricmc.fabric.impl.loot.LootTableModifier;
 import net.fabricmc.fabric.impl.loot.LootUtil;
 import net.minecraft.core.HolderLookup;
 import net.minecraft.core.LayeredRegistryAccess;
@@ -79,12 +84,68 @@ abstract class ReloadableRegistriesMixin {
 		}), fn, executor);
 	}
 
+	/**
+	 * Makes the executor available to the thread parsing the loot tables, in case they can be modified in parallel.
+	 */
+	@WrapOperation(method = "scheduleElementParse", at = @At(value = "INVOKE", target = "Ljava/util/concurrent/CompletableFuture;supplyAsync(Ljava/util/function/Supplier;Ljava/util/concurrent/Executor;)Ljava/util/concurrent/CompletableFuture;"))
+	private static <T> CompletableFuture<T> captureExecutor(Supplier<T> supplier, Executor executor, Operation<CompletableFuture<T>> original) {
+		return original.call((Supplier<T>) () -> {
+			LootTableModifier.EXECUTOR.set(executor);
+
+			try {
+				return supplier.get();
+			} finally {
+				LootTableModifier.EXECUTOR.remove();
+			}
+		}, executor);
+	}
+
+	/**
+	 * When loot tables can be modified in parallel, collects them while they are parsed, then modifies and registers them all at once.
+	 */
+	@WrapOperation(method = "lambda$scheduleElementParse$4", at = @At(value = "INVOKE", target = "Ljava/util/Map;forEach(Ljava/util/function/BiConsumer;)V"))
+	private static void modifyInParallel(Map<ResourceLocation, JsonElement> elements, BiConsumer<ResourceLocation, JsonElement> parser, Operation<Void> original, @Local(argsOnly = true) LootDataType<?> lootDataType) {
+		Executor executor = LootTableModifier.EXECUTOR.get();
+
+		if (lootDataType != LootDataType.TABLE || executor == null || !LootTableEventsImpl.canModifyInParallel()) {
+			original.call(elements, parser);
+			return;
+		}
+
+		List<LootTableModifier.PendingTable> pendingTables = new ArrayList<>(elements.size());
+		LootTableModifier.PENDING_TABLES.set(pendingTables);
+
+		try {
+			original.call(elements, parser);
+		} finally {
+			LootTableModifier.PENDING_TABLES.remove();
+		}
+
+		LootTableModifier.modifyInParallel(pendingTables, executor);
+	}
+
+	@SuppressWarnings("unchecked")
 	@WrapOperation(method = "lambda$scheduleElementParse$3", at = @At(value = "INVOKE", target = "Ljava/util/Optional;ifPresent(Ljava/util/function/Consumer;)V"))
 	private static <T> void modifyLootTable(Optional<T> optionalTable, Consumer<? super T> action, Operation<Void> original, @Local(argsOnly = true) ResourceLocation id, @Local(argsOnly = true) RegistryOps<JsonElement> ops) {
+		List<LootTableModifier.PendingTable> pendingTables = LootTableModifier.PENDING_TABLES.get();
+
+		if (pendingTables != null && optionalTable.isPresent() && optionalTable.get() instanceof LootTable table && table != LootTable.EMPTY) {
+			// Resolve everything that is only available on this thread, and leave the table to be modified and registered in parallel.
+			pendingTables.add(new LootTableModifier.PendingTable(ResourceKey.create(Registries.LOOT_TABLE, id), getSource(id), WRAPPERS.get(ops), table, modified -> ((Consumer<Object>) action).accept(modified)));
+			return;
+		}
+
 		original.call(optionalTable.map(table -> modifyLootTable(table, id, ops)), action);
 	}
 
 	@Unique
+	private static LootTableSource getSource(ResourceLocation id) {
+		// Populated inside JsonDataLoaderMixin
+		return LootUtil.SOURCES.get().getOrDefault(id, LootTableSource.DATA_PACK);
+	}
+
+	@Unique
+	@SuppressWarnings("unchecked")
 	private static <T> T modifyLootTable(T value, ResourceLocation id, RegistryOps<JsonElement> ops) {
 		if (!(value instanceof LootTable table)) return value;
 
@@ -96,28 +157,7 @@ abstract class ReloadableRegistriesMixin {
 		ResourceKey<LootTable> key = ResourceKey.create(Registries.LOOT_TABLE, id);
 		// Populated above.
 		HolderLookup.Provider registries = WRAPPERS.get(ops);
-		// Populated inside JsonDataLoaderMixin
-		LootTableSource source = LootUtil.SOURCES.get().getOrDefault(id, LootTableSource.DATA_PACK);
-		// Invoke the REPLACE event for the current loot table.
-		LootTable replacement = LootTableEvents.REPLACE.invoker().replaceLootTable(key, table, source, registries);
-
-		if (replacement != null) {
-			// Set the loot table to MODIFY to be the replacement loot table.
-			// The MODIFY event will also see it as a replaced loot table via the source.
-			table = replacement;
-			source = LootTableSource.REPLACED;
-		}
-
-		// Turn the current table into a modifiable builder and invoke the MODIFY event.
-		LootTable.Builder builder = FabricLootTableBuilder.copyOf(table);
-		LootTableEvents.MODIFY.invoker().modifyLootTable(key, builder, source, registries);
-
-		T newTable = (T) builder.build();
-		ResourceLocation lootTableId = table.getLootTableId();
-		if (lootTableId != null) {
-			((LootTable) newTable).setLootTableId(lootTableId);
-		}
-		return newTable;
+		return (T) LootTableModifier.modify(table, key, getSource(id), registries);
 	}
 
 	@SuppressWarnings("unchecked")
@@ -17,12 +17,14 @@
 package net.fabricmc.fabric.test.loot;
 
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 import net.fabricmc.api.ModInitializer;
 import net.fabricmc.fabric.api.loot.v3.LootTableEvents;
 import net.fabricmc.fabric.api.loot.v3.LootTableSource;
 import net.minecraft.core.Holder;
 import net.minecraft.core.registries.Registries;
 import net.minecraft.network.chat.Component;
+import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.entity.EntityType;
 import net.minecraft.world.item.Items;
 import net.minecraft.world.item.enchantment.Enchantment;
@@ -37,12 +39,18 @@ import net.minecraft.world.level.storage.loot.predicates.ExplosionCondition;
 import net.minecraft.world.level.storage.loot.providers.number.ConstantValue;
 
 public class LootTest implements ModInitializer {
+	private final AtomicBoolean keyedReplaceInvoked = new AtomicBoolean();
+	private final AtomicBoolean keyedModifyInvoked = new AtomicBoolean();
+
 	@Override
 	public void onInitialize() {
+		// All listeners below are thread-safe, so that loot tables are modified in parallel
+		System.setProperty("fabric-api.loot.parallel-modification", "true");
+
 		// Test loot table load event
 		// The LootTable.Builder LootPool.Builder methods here should use
 		// prebuilt entries and pools to test the injected methods.
-		LootTableEvents.REPLACE.register((key, original, source, registries) -> {
+		LootTableEvents.REPLACE.register((LootTableEvents.Replace & LootTableEvents.ThreadSafe) (key, original, source, registries) -> {
 			if (Blocks.BLACK_WOOL.getLootTable() == key) {
 				if (source != LootTableSource.VANILLA) {
 					throw new AssertionError("black wool loot table should have LootTableSource.VANILLA, got " + source);
@@ -59,20 +67,51 @@ public class LootTest implements ModInitializer {
 			return null;
 		});
 
-		// Test that the event is stopped when the loot table is replaced
-		LootTableEvents.REPLACE.register((key, original, source, registries) -> {
+		// Test the events of a specific loot table
+		LootTableEvents.replaceEvent(Blocks.GREEN_WOOL.getLootTable()).register((LootTableEvents.Replace & LootTableEvents.ThreadSafe) (key, original, source, registries) -> {
+			if (Blocks.GREEN_WOOL.getLootTable() != key) {
+				throw new AssertionError("green wool replace event should not be invoked for " + key.location());
+			}
+
+			keyedReplaceInvoked.set(true);
+
+			// Replace green wool drops with lapis lazuli
+			return LootTable.lootTable().pool(LootPool.lootPool().with(LootItem.lootTableItem(Items.LAPIS_LAZULI).build()).build()).build();
+		});
+
+		LootTableEvents.modifyEvent(Blocks.BLUE_WOOL.getLootTable()).register((LootTableEvents.Modify & LootTableEvents.ThreadSafe) (key, tableBuilder, source, registries) -> {
+			if (Blocks.BLUE_WOOL.getLootTable() != key) {
+				throw new AssertionError("blue wool modify event should not be invoked for " + key.location());
+			}
+
+			keyedModifyInvoked.set(true);
+
+			// Add lapis lazuli to blue wool drops
+			tableBuilder.pool(LootPool.lootPool().with(LootItem.lootTableItem(Items.LAPIS_LAZULI).build()).build());
+		});
+
+		// Test that the event is stopped when the loot table is replaced, including by the event of a specific loot table
+		LootTableEvents.REPLACE.register((LootTableEvents.Replace & LootTableEvents.ThreadSafe) (key, original, source, registries) -> {
 			if (Blocks.BLACK_WOOL.getLootTable() == key) {
 				throw new AssertionError("Event should have been stopped from replaced loot table");
 			}
 
+			if (Blocks.GREEN_WOOL.getLootTable() == key) {
+				throw new AssertionError("Event should have been skipped for loot table replaced by its specific event");
+			}
+
 			return null;
 		});
 
-		LootTableEvents.MODIFY.register((key, tableBuilder, source, registries) -> {
+		LootTableEvents.MODIFY.register((LootTableEvents.Modify & LootTableEvents.ThreadSafe) (key, tableBuilder, source, registries) -> {
 			if (Blocks.BLACK_WOOL.getLootTable() == key && source != LootTableSource.REPLACED) {
 				throw new AssertionError("black wool loot table should have LootTableSource.REPLACED, got " + source);
 			}
 
+			if (Blocks.GREEN_WOOL.getLootTable() == key && source != LootTableSource.REPLACED) {
+				throw new AssertionError("green wool loot table should have LootTableSource.REPLACED, got " + source);
+			}
+
 			if (Blocks.WHITE_WOOL.getLootTable() == key) {
 				if (source != LootTableSource.VANILLA) {
 					throw new AssertionError("white wool loot table should have LootTableSource.VANILLA, got " + source);
@@ -100,7 +139,7 @@ public class LootTest implements ModInitializer {
 			}
 		});
 
-		LootTableEvents.MODIFY.register((key, tableBuilder, source, registries) -> {
+		LootTableEvents.MODIFY.register((LootTableEvents.Modify & LootTableEvents.ThreadSafe) (key, tableBuilder, source, registries) -> {
 			if (EntityType.SALMON.getDefaultLootTable() == key) {
 				Optional<Holder<Enchantment>> lure = registries.lookup(Registries.ENCHANTMENT).flatMap(registry -> registry.get(Enchantments.LURE));
 
@@ -118,6 +157,27 @@ public class LootTest implements ModInitializer {
 			if (blackWoolTable == LootTable.EMPTY) {
 				throw new AssertionError("black wool loot table should not be empty");
 			}
+
+			if (!keyedReplaceInvoked.getAndSet(false)) {
+				throw new AssertionError("green wool replace event should have been invoked");
+			}
+
+			if (!keyedModifyInvoked.getAndSet(false)) {
+				throw new AssertionError("blue wool modify event should have been invoked");
+			}
+
+			// Loot tables modified in parallel are registered in the order of their keys, independently of the order they were modified in
+			ResourceLocation previous = null;
+
+			for (Holder.Reference<LootTable> table : lootRegistry.holders().toList()) {
+				ResourceLocation id = table.key().location();
+
+				if (previous != null && previous.compareTo(id) > 0) {
+					throw new AssertionError("loot table " + id + " was registered after " + previous);
+				}
+
+				previous = id;
+			}
 		});
 	}
 }
@@ -17,7 +17,9 @@
 package net.fabricmc.fabric.api.networking.v1;
 
 import java.util.Objects;
+import net.fabricmc.fabric.impl.networking.PooledPayloadBuffers;
 import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 
@@ -45,6 +47,52 @@ public final class PacketByteBufs {
 		return new FriendlyByteBuf(Unpooled.buffer());
 	}
 
+	/**
+	 * Returns a new heap memory-backed instance of packet byte buf, allocated from Netty's buffer pool.
+	 *
+	 * <p>Unlike {@linkplain #create() unpooled buffers}, a pooled buffer must be released to return it to the pool.
+	 * Use {@link #sendAndRelease(PacketSender, CustomPacketPayload, ByteBuf)} to release it once the payload holding it has been sent,
+	 * or {@link ByteBuf#release()} it manually.
+	 *
+	 * <p>Pooled buffers that are garbage collected without being released are reported by Netty's leak detection.
+	 * By default only a sample of buffers is tracked; run with {@code -Dio.netty.leakDetection.level=paranoid} to track all of them.
+	 * This level applies to every Netty buffer of the JVM, so it is meant for debugging only.
+	 *
+	 * @return a new pooled buf
+	 */
+	public static FriendlyByteBuf pooled() {
+		return new FriendlyByteBuf(PooledPayloadBuffers.heapBuffer());
+	}
+
+	/**
+	 * Returns a new direct memory-backed instance of packet byte buf, allocated from Netty's buffer pool.
+	 * The same release rules as for {@link #pooled()} apply.
+	 *
+	 * @return a new pooled buf
+	 */
+	public static FriendlyByteBuf pooledDirect() {
+		return new FriendlyByteBuf(PooledPayloadBuffers.directBuffer());
+	}
+
+	/**
+	 * Sends a payload and releases a buffer it holds once the buffer is no longer needed.
+	 *
+	 * <p>On remote connections, the buffer is released once the payload has been written to the connection, whether the write succeeded or not.
+	 * On in-memory connections, such as the one to the integrated server, the payload is handed over without being encoded,
+	 * so the buffer is released after the receiving side has handled the payload.
+	 *
+	 * @param sender  the packet sender
+	 * @param payload the payload to send
+	 * @param buf     the buffer to release, usually a {@linkplain #pooled() pooled} buffer held by the payload
+	 */
+	public static void sendAndRelease(PacketSender sender, CustomPacketPayload payload, ByteBuf buf) {
+		Objects.requireNonNull(sender, "Packet sender cannot be null");
+		Objects.requireNonNull(payload, "Payload cannot be null");
+		Objects.requireNonNull(buf, "ByteBuf cannot be null");
+
+		PooledPayloadBuffers.sendAndRelease(sender, payload, buf);
+	}
+
 	// Convenience methods for byte buf methods that return a new byte buf
 
 	/**
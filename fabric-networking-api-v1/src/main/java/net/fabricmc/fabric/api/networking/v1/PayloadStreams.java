@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.api.networking.v1;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+import io.netty.buffer.ByteBuf;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+import net.fabricmc.fabric.impl.networking.stream.PayloadStreamsImpl;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.protocol.PacketFlow;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.entity.player.Player;
+
+/**
+ * Offers streaming of payloads that are larger than a single custom payload packet may be.
+ *
+ * <p>A stream splits its data into sequenced fragments, which are sent over the connection while it is in the
+ * configuration or play phase. Each connection has a send window limiting how many fragments may be in flight
+ * at once; further fragments are only sent once the remote end acknowledges earlier ones, so that a large stream
+ * does not starve other traffic on the same connection. Multiple streams on one connection share the window and
+ * are interleaved fragment by fragment.
+ *
+ * <p>The receiving end reassembles the fragments without copying them, and hands the complete data to the
+ * {@link Receiver} registered for the stream's channel once the last fragment arrives.
+ *
+ * <p>On in-memory connections, such as the one between the integrated server and the local client, fragments are never encoded,
+ * so the whole stream is handed over in a single fragment.
+ *
+ * <p>Stream channels are independent of {@linkplain PayloadTypeRegistry payload types}, and do not need to be registered there.
+ */
+public final class PayloadStreams {
+	/**
+	 * Registers a receiver for a stream channel.
+	 *
+	 * <p>If a receiver is already registered for the {@code channel} and {@code flow}, this method will return {@code false}, and no change will be made.
+	 *
+	 * @param flow the direction of the streams to receive, {@link PacketFlow#SERVERBOUND} to receive on the server and {@link PacketFlow#CLIENTBOUND} to receive on the client
+	 * @param channel the id of the stream channel
+	 * @param receiver the receiver
+	 * @return {@code false} if a receiver is already registered to the channel
+	 */
+	public static boolean registerReceiver(PacketFlow flow, ResourceLocation channel, Receiver receiver) {
+		Objects.requireNonNull(flow, "Flow cannot be null");
+		Objects.requireNonNull(channel, "Channel name cannot be null");
+		Objects.requireNonNull(receiver, "Receiver cannot be null");
+
+		return PayloadStreamsImpl.registerReceiver(flow, channel, receiver);
+	}
+
+	/**
+	 * Removes the receiver of a stream channel.
+	 *
+	 * @param flow the direction of the streams the receiver was registered for
+	 * @param channel the id of the stream channel
+	 * @return the removed receiver, or {@code null} if no receiver was registered
+	 */
+	@Nullable
+	public static Receiver unregisterReceiver(PacketFlow flow, ResourceLocation channel) {
+		Objects.requireNonNull(flow, "Flow cannot be null");
+		Objects.requireNonNull(channel, "Channel name cannot be null");
+
+		return PayloadStreamsImpl.unregisterReceiver(flow, channel);
+	}
+
+	/**
+	 * Starts streaming data to the remote end of a connection.
+	 *
+	 * <p>The readable bytes of {@code data} are streamed; the reader index of {@code data} is not modified.
+	 * Ownership of {@code data} is transferred to the stream, which releases it once the stream completes or is cancelled.
+	 *
+	 * <p>A stream may be at most 32 MiB large. The receiving end also limits the streams it buffers at once per connection,
+	 * and rejects streams beyond those limits, which cancels them on this end.
+	 *
+	 * @param sender the packet sender of the connection, as obtained from the networking classes of the current phase
+	 * @param channel the id of the stream channel
+	 * @param data the data to send
+	 * @return a handle to the stream
+	 * @throws IllegalArgumentException if the packet sender is not bound to a connection, or the data is larger than 32 MiB
+	 */
+	public static OutgoingStream send(PacketSender sender, ResourceLocation channel, ByteBuf data) {
+		Objects.requireNonNull(sender, "Packet sender cannot be null");
+		Objects.requireNonNull(channel, "Channel name cannot be null");
+		Objects.requireNonNull(data, "Data cannot be null");
+
+		return PayloadStreamsImpl.send(sender, channel, data);
+	}
+
+	private PayloadStreams() {
+	}
+
+	/**
+	 * A handle to a stream being sent.
+	 */
+	@ApiStatus.NonExtendable
+	public interface OutgoingStream {
+		/**
+		 * @return the id of the stream channel
+		 */
+		ResourceLocation channel();
+
+		/**
+		 * @return the total number of bytes in the stream
+		 */
+		int totalBytes();
+
+		/**
+		 * @return the number of bytes acknowledged by the remote end so far
+		 */
+		int acknowledgedBytes();
+
+		/**
+		 * @return the fraction of the stream acknowledged by the remote end, from {@code 0} to {@code 1}
+		 */
+		default float progress() {
+			return totalBytes() == 0 ? 1.0F : (float) acknowledgedBytes() / totalBytes();
+		}
+
+		/**
+		 * Returns a future completed once the remote end acknowledged the whole stream.
+		 * The future is completed exceptionally with a {@link java.util.concurrent.CancellationException} if the stream is cancelled,
+		 * either locally, by the remote end, or by the connection closing.
+		 *
+		 * @return the completion future
+		 */
+		CompletableFuture<Void> completion();
+
+		/**
+		 * Cancels the stream. Fragments that have not been sent yet are dropped, and the remote end discards the partial data.
+		 * Has no effect if the stream has already completed.
+		 */
+		void cancel();
+	}
+
+	/**
+	 * Receives complete streams of a channel.
+	 */
+	@FunctionalInterface
+	public interface Receiver {
+		/**
+		 * Handles a completely received stream. This is called on the main thread of the receiving side.
+		 *
+		 * <p>The buffer is released once this method returns; it must be retained or copied to be used afterwards.
+		 *
+		 * @param data the reassembled data of the stream
+		 * @param context the stream context
+		 */
+		void receive(FriendlyByteBuf data, Context context);
+
+		/**
+		 * Called on the main thread of the receiving side whenever a fragment of a stream arrives.
+		 *
+		 * @param receivedBytes the number of bytes received so far
+		 * @param totalBytes the total number of bytes in the stream
+		 * @param context the stream context
+		 */
+		default void progress(int receivedBytes, int totalBytes, Context context) {
+		}
+
+		/**
+		 * Called on the main thread of the receiving side when a partially received stream is cancelled by the remote end.
+		 *
+		 * @param context the stream context
+		 */
+		default void cancelled(Context context) {
+		}
+	}
+
+	@ApiStatus.NonExtendable
+	public interface Context {
+		/**
+		 * @return the id of the stream channel
+		 */
+		ResourceLocation channel();
+
+		/**
+		 * @return the player of the connection, or {@code null} if the connection is not in the play phase
+		 */
+		@Nullable
+		Player player();
+
+		/**
+		 * @return the packet sender, which may also be used to {@linkplain PayloadStreams#send(PacketSender, ResourceLocation, ByteBuf) stream} a response
+		 */
+		PacketSender responseSender();
+	}
+}
@@ -34,6 +34,10 @@ public interface PayloadTypeRegistry<B extends FriendlyByteBuf> {
 	 * <p>This must be done on both the sending and receiving side, usually during mod initialization
 	 * and <strong>before registering a packet handler</strong>.
 	 *
+	 * <p>On in-memory connections, such as the one between the integrated server and the local client,
+	 * payload objects are handed to the receiving side as they are, without going through the codec.
+	 * Payloads should therefore be immutable, as the same instance is shared between both sides.
+	 *
 	 * @param id    the id of the payload type
 	 * @param codec the codec for the payload type
 	 * @param <T>   the payload type
@@ -41,6 +45,24 @@ public interface PayloadTypeRegistry<B extends FriendlyByteBuf> {
 	 */
 	<T extends CustomPacketPayload> CustomPacketPayload.TypeAndCodec<? super B, T> register(CustomPacketPayload.Type<T> id, StreamCodec<? super B, T> codec);
 
+	/**
+	 * Registers a custom payload type, compressing its encoded form.
+	 *
+	 * <p>Compression is applied per payload, in addition to the connection-level compression, and is worth it for
+	 * large, repetitive payloads that the connection-level compression threshold would not catch.
+	 * Payloads smaller than a few hundred bytes, and payloads that would not shrink, are sent uncompressed.
+	 *
+	 * <p>The same compression must be used on the sending and receiving side.
+	 *
+	 * @param id          the id of the payload type
+	 * @param codec       the codec for the payload type
+	 * @param compression the compression applied to the encoded payload
+	 * @param <T>         the payload type
+	 * @return the registered payload type
+	 * @see #register(CustomPacketPayload.Type, StreamCodec)
+	 */
+	<T extends CustomPacketPayload> CustomPacketPayload.TypeAndCodec<? super B, T> register(CustomPacketPayload.Type<T> id, StreamCodec<? super B, T> codec, Compression compression);
+
 	/**
 	 * @return the {@link PayloadTypeRegistry} instance for the client to server configuration channel.
 	 */
@@ -68,4 +90,18 @@ public interface PayloadTypeRegistry<B extends FriendlyByteBuf> {
 	static PayloadTypeRegistry<RegistryFriendlyByteBuf> playS2C() {
 		return PayloadTypeRegistryImpl.PLAY_S2C;
 	}
+
+	/**
+	 * Compression applied to the encoded form of a payload type.
+	 */
+	enum Compression {
+		/**
+		 * The payload is sent as encoded by its codec.
+		 */
+		NONE,
+		/**
+		 * The payload is compressed with {@link java.util.zip.Deflater} when it is large enough.
+		 */
+		DEFLATE
+	}
 }
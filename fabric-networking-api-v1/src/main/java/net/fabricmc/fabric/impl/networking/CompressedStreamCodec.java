@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.networking;
+
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.DecoderException;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.network.VarInt;
+import net.minecraft.network.codec.StreamCodec;
+
+/**
+ * Wraps a payload codec, deflating the encoded payload when it is at least {@link #THRESHOLD} bytes large.
+ *
+ * <p>The encoded form starts with a flag byte. If it is {@code 0}, the payload follows uncompressed;
+ * otherwise the uncompressed and compressed lengths follow as var ints, then the deflated bytes.
+ *
+ * <p>Compressed payloads are decoded from a new buffer holding the inflated bytes, which is a {@link RegistryFriendlyByteBuf} if the
+ * payload was read from one, or a plain {@link FriendlyByteBuf} otherwise. The wrapped codec must therefore not rely on any other
+ * buffer subclass.
+ */
+public final class CompressedStreamCodec<B extends FriendlyByteBuf, T> implements StreamCodec<B, T> {
+	public static final int THRESHOLD = 256;
+	/**
+	 * Same limit as the vanilla connection-level compression, to reject payloads inflating to absurd sizes.
+	 */
+	public static final int MAX_UNCOMPRESSED_SIZE = 8388608;
+
+	// Deflaters and inflaters hold native memory and are costly to create, keep one per network thread.
+	private static final ThreadLocal<Deflater> DEFLATER = ThreadLocal.withInitial(Deflater::new);
+	private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(Inflater::new);
+
+	private final StreamCodec<? super B, T> codec;
+
+	public CompressedStreamCodec(StreamCodec<? super B, T> codec) {
+		this.codec = codec;
+	}
+
+	@Override
+	public void encode(B buf, T value) {
+		int start = buf.writerIndex();
+		buf.writeByte(0);
+		codec.encode(buf, value);
+
+		int length = buf.writerIndex() - start - 1;
+
+		if (length < THRESHOLD) {
+			return;
+		}
+
+		Deflater deflater = DEFLATER.get();
+		byte[] compressed = new byte[length];
+		int compressedLength;
+
+		try {
+			deflater.setInput(buf.nioBuffer(start + 1, length));
+			deflater.finish();
+			compressedLength = deflater.deflate(compressed);
+
+			if (!deflater.finished()) {
+				// Incompressible data, the deflated form would not be smaller
+				return;
+			}
+		} finally {
+			deflater.reset();
+		}
+
+		if (compressedLength + VarInt.getByteSize(length) + VarInt.getByteSize(compressedLength) >= length) {
+			return;
+		}
+
+		// The input has been fully consumed, the uncompressed bytes can be overwritten
+		buf.writerIndex(start);
+		buf.writeByte(1);
+		buf.writeVarInt(length);
+		buf.writeVarInt(compressedLength);
+		buf.writeBytes(compressed, 0, compressedLength);
+	}
+
+	@Override
+	public T decode(B buf) {
+		if (buf.readByte() == 0) {
+			return codec.decode(buf);
+		}
+
+		int length = buf.readVarInt();
+		int compressedLength = buf.readVarInt();
+
+		if (length < 0 || length > MAX_UNCOMPRESSED_SIZE) {
+			throw new DecoderException("Compressed payload of " + length + " bytes exceeds the maximum of " + MAX_UNCOMPRESSED_SIZE + " bytes");
+		}
+
+		if (compressedLength < 0 || compressedLength > buf.readableBytes()) {
+			throw new DecoderException("Compressed payload declares " + compressedLength + " compressed bytes, but only " + buf.readableBytes() + " bytes are readable");
+		}
+
+		Inflater inflater = INFLATER.get();
+		ByteBuf inflated = Unpooled.buffer(length, length);
+
+		try {
+			inflater.setInput(buf.nioBuffer(buf.readerIndex(), compressedLength));
+			int inflatedLength = inflater.inflate(inflated.nioBuffer(0, length));
+
+			if (inflatedLength != length || !inflater.finished()) {
+				throw new DecoderException("Compressed payload did not inflate to its declared length of " + length + " bytes");
+			}
+
+			inflated.writerIndex(length);
+		} catch (DataFormatException e) {
+			throw new DecoderException("Failed to inflate payload", e);
+		} finally {
+			inflater.reset();
+		}
+
+		buf.skipBytes(compressedLength);
+		return codec.decode(wrap(buf, inflated));
+	}
+
+	/**
+	 * Wraps the inflated bytes into a buffer of the same kind as the original one. Only the registry access of a
+	 * {@link RegistryFriendlyByteBuf} is carried over; any other buffer is replaced by a plain {@link FriendlyByteBuf}.
+	 */
+	@SuppressWarnings("unchecked")
+	private B wrap(B original, ByteBuf inflated) {
+		if (original instanceof RegistryFriendlyByteBuf registryBuf) {
+			return (B) new RegistryFriendlyByteBuf(inflated, registryBuf.registryAccess());
+		}
+
+		return (B) new FriendlyByteBuf(inflated);
+	}
+}
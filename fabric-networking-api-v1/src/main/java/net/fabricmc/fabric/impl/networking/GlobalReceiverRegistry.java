@@ -42,6 +42,11 @@ public final class GlobalReceiverRegistry<H> {
 
 	private final ReadWriteLock lock = new ReentrantReadWriteLock();
 	private final Map<ResourceLocation, H> handlers = new HashMap<>();
+	/**
+	 * Immutable copy of {@link #handlers}, republished under the write lock after every change.
+	 * Handlers are looked up for every received packet but change almost only during startup, so lookups read this copy without locking.
+	 */
+	private volatile Map<ResourceLocation, H> handlerSnapshot = Map.of();
 	private final Set<AbstractNetworkAddon<H>> trackedAddons = new HashSet<>();
 
 	public GlobalReceiverRegistry(PacketFlow side, ConnectionProtocol phase, @Nullable PayloadTypeRegistryImpl<?> payloadTypeRegistry) {
@@ -57,14 +62,7 @@ public final class GlobalReceiverRegistry<H> {
 
 	@Nullable
 	public H getHandler(ResourceLocation channelName) {
-		Lock lock = this.lock.readLock();
-		lock.lock();
-
-		try {
-			return this.handlers.get(channelName);
-		} finally {
-			lock.unlock();
-		}
+		return this.handlerSnapshot.get(channelName);
 	}
 
 	public boolean registerGlobalReceiver(ResourceLocation channelName, H handler) {
@@ -84,6 +82,7 @@ public final class GlobalReceiverRegistry<H> {
 			final boolean replaced = this.handlers.putIfAbsent(channelName, handler) == null;
 
 			if (replaced) {
+				this.publishHandlers();
 				this.handleRegistration(channelName, handler);
 			}
 
@@ -108,6 +107,7 @@ public final class GlobalReceiverRegistry<H> {
 			final H removed = this.handlers.remove(channelName);
 
 			if (removed != null) {
+				this.publishHandlers();
 				this.handleUnregistration(channelName);
 			}
 
@@ -118,25 +118,18 @@ public final class GlobalReceiverRegistry<H> {
 	}
 
 	public Map<ResourceLocation, H> getHandlers() {
-		Lock lock = this.lock.writeLock();
-		lock.lock();
-
-		try {
-			return new HashMap<>(this.handlers);
-		} finally {
-			lock.unlock();
-		}
+		return new HashMap<>(this.handlerSnapshot);
 	}
 
 	public Set<ResourceLocation> getChannels() {
-		Lock lock = this.lock.readLock();
-		lock.lock();
+		return new HashSet<>(this.handlerSnapshot.keySet());
+	}
 
-		try {
-			return new HashSet<>(this.handlers.keySet());
-		} finally {
-			lock.unlock();
-		}
+	/**
+	 * Must be called with the write lock held.
+	 */
+	private void publishHandlers() {
+		this.handlerSnapshot = Map.copyOf(this.handlers);
 	}
 
 	// State tracking methods
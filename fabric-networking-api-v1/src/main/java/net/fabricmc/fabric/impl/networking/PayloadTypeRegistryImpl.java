@@ -47,10 +47,20 @@ public class PayloadTypeRegistryImpl<B extends FriendlyByteBuf> implements Paylo
 
 	@Override
 	public <T extends CustomPacketPayload> CustomPacketPayload.TypeAndCodec<? super B, T> register(CustomPacketPayload.Type<T> id, StreamCodec<? super B, T> codec) {
+		return register(id, codec, Compression.NONE);
+	}
+
+	@Override
+	public <T extends CustomPacketPayload> CustomPacketPayload.TypeAndCodec<? super B, T> register(CustomPacketPayload.Type<T> id, StreamCodec<? super B, T> codec, Compression compression) {
 		Objects.requireNonNull(id, "id");
 		Objects.requireNonNull(codec, "codec");
+		Objects.requireNonNull(compression, "compression");
 
-		final CustomPacketPayload.TypeAndCodec<B, T> payloadType = new CustomPacketPayload.TypeAndCodec<>(id, codec.cast());
+		final StreamCodec<B, T> wireCodec = switch (compression) {
+		case NONE -> codec.cast();
+		case DEFLATE -> new CompressedStreamCodec<>(codec);
+		};
+		final CustomPacketPayload.TypeAndCodec<B, T> payloadType = new CustomPacketPayload.TypeAndCodec<>(id, wireCodec);
 
 		if (packetTypes.containsKey(id.id())) {
 			throw new IllegalArgumentException("Packet type " + id + " is already registered!");
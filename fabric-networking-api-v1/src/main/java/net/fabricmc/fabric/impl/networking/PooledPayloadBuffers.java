@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.networking;
+
+import java.lang.ref.Cleaner;
+import java.util.Map;
+
+import com.google.common.collect.MapMaker;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import net.minecraft.network.PacketSendListener;
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.fabricmc.fabric.api.networking.v1.PacketSender;
+
+/**
+ * Backs the pooled buffers of {@link net.fabricmc.fabric.api.networking.v1.PacketByteBufs}, and releases them once they have been sent.
+ *
+ * <p>On remote connections a payload is encoded when it is written, so its buffer can be released once the write completes.
+ * On in-memory connections the payload object itself is handed to the receiving side, so the buffer is only released
+ * after the receiving side has handled the payload. Payloads that are never handled, because they have no receiver, are
+ * dropped or are still queued when the connection closes, release their buffer once they are garbage collected.
+ */
+public final class PooledPayloadBuffers {
+	private static final Cleaner CLEANER = Cleaner.create();
+	// Weak identity keys, so that the payloads can still be collected when they are never handled
+	private static final Map<CustomPacketPayload, Cleaner.Cleanable> IN_MEMORY_PAYLOADS = new MapMaker().weakKeys().makeMap();
+
+	public static ByteBuf heapBuffer() {
+		return PooledByteBufAllocator.DEFAULT.heapBuffer();
+	}
+
+	public static ByteBuf directBuffer() {
+		return PooledByteBufAllocator.DEFAULT.directBuffer();
+	}
+
+	public static void sendAndRelease(PacketSender sender, CustomPacketPayload payload, ByteBuf buf) {
+		if (sender instanceof ConnectionBoundPacketSender boundSender && boundSender.connection().isMemoryConnection()) {
+			trackInMemory(payload, buf);
+			sender.sendPacket(payload);
+			return;
+		}
+
+		sender.sendPacket(payload, new PacketSendListener() {
+			@Override
+			public void onSuccess() {
+				buf.release();
+			}
+
+			@Override
+			public Packet<?> onFailure() {
+				buf.release();
+				return null;
+			}
+		});
+	}
+
+	/**
+	 * Makes the buffer of a payload sent over an in-memory connection owned by the payload object: it is released when the payload
+	 * is {@linkplain #onHandled handled}, or at the latest when the payload is garbage collected.
+	 */
+	public static void trackInMemory(CustomPacketPayload payload, ByteBuf buf) {
+		IN_MEMORY_PAYLOADS.put(payload, CLEANER.register(payload, new Release(buf)));
+	}
+
+	/**
+	 * Called once the receiving side of an in-memory connection is done with a payload.
+	 */
+	public static void onHandled(CustomPacketPayload payload) {
+		if (IN_MEMORY_PAYLOADS.isEmpty()) {
+			return;
+		}
+
+		Cleaner.Cleanable cleanable = IN_MEMORY_PAYLOADS.remove(payload);
+
+		if (cleanable != null) {
+			// Runs the release at most once, and unregisters it from the cleaner
+			cleanable.clean();
+		}
+	}
+
+	private PooledPayloadBuffers() {
+	}
+
+	/**
+	 * The cleaning action releasing the buffer of an in-memory payload.
+	 * Must not reference the payload, or the payload would never become unreachable.
+	 */
+	public record Release(ByteBuf buf) implements Runnable {
+		@Override
+		public void run() {
+			buf.release();
+		}
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.networking.stream;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+import net.minecraft.resources.ResourceLocation;
+import net.fabricmc.fabric.api.networking.v1.PayloadStreams;
+
+/**
+ * Reassembles the fragments of a stream into a {@link CompositeByteBuf} without copying them.
+ */
+public final class IncomingStream {
+	private final ResourceLocation channel;
+	private final PayloadStreams.Receiver receiver;
+	private final int totalBytes;
+	// Never consolidate components, as that would copy the fragments
+	private final CompositeByteBuf buffer = Unpooled.compositeBuffer(Integer.MAX_VALUE);
+	private int nextIndex;
+
+	IncomingStream(ResourceLocation channel, PayloadStreams.Receiver receiver, int totalBytes) {
+		this.channel = channel;
+		this.receiver = receiver;
+		this.totalBytes = totalBytes;
+	}
+
+	ResourceLocation channel() {
+		return channel;
+	}
+
+	PayloadStreams.Receiver receiver() {
+		return receiver;
+	}
+
+	int totalBytes() {
+		return totalBytes;
+	}
+
+	int receivedBytes() {
+		return buffer.writerIndex();
+	}
+
+	/**
+	 * Takes ownership of the fragment data.
+	 */
+	void add(int index, ByteBuf data) {
+		if (index != nextIndex) {
+			data.release();
+			throw new IllegalStateException("Received stream fragment " + index + " on channel " + channel + ", expected " + nextIndex);
+		}
+
+		if (receivedBytes() + data.readableBytes() > totalBytes) {
+			data.release();
+			throw new IllegalStateException("Stream on channel " + channel + " exceeds its declared length of " + totalBytes + " bytes");
+		}
+
+		nextIndex++;
+		buffer.addComponent(true, data);
+	}
+
+	boolean isComplete() {
+		return nextIndex > 0 && receivedBytes() == totalBytes;
+	}
+
+	ByteBuf buffer() {
+		return buffer;
+	}
+
+	void release() {
+		buffer.release();
+	}
+}
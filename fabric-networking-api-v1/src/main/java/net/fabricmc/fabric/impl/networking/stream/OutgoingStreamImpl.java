@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.networking.stream;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+
+import io.netty.buffer.ByteBuf;
+import net.minecraft.resources.ResourceLocation;
+import net.fabricmc.fabric.api.networking.v1.PacketSender;
+import net.fabricmc.fabric.api.networking.v1.PayloadStreams;
+import net.fabricmc.fabric.impl.networking.PooledPayloadBuffers;
+
+final class OutgoingStreamImpl implements PayloadStreams.OutgoingStream {
+	private final StreamConnectionState state;
+	private final PacketSender sender;
+	private final int id;
+	private final ResourceLocation channel;
+	private final ByteBuf data;
+	private final int totalBytes;
+	private final int fragmentSize;
+	private final int fragmentCount;
+	private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+	private int sentFragments;
+	private int acknowledgedFragments;
+	private volatile int acknowledgedBytes;
+	private boolean cancelled;
+	private boolean released;
+
+	OutgoingStreamImpl(StreamConnectionState state, PacketSender sender, int id, ResourceLocation channel, ByteBuf data, boolean local) {
+		this.state = state;
+		this.sender = sender;
+		this.id = id;
+		this.channel = channel;
+		this.data = data;
+		this.totalBytes = data.readableBytes();
+		// Payloads are passed as objects on in-memory connections and never encoded, so the whole stream fits into a single fragment
+		this.fragmentSize = local ? Math.max(1, totalBytes) : PayloadStreamsImpl.FRAGMENT_SIZE;
+		// An empty stream still sends a single empty fragment, so that the remote end is notified
+		this.fragmentCount = Math.max(1, (totalBytes + fragmentSize - 1) / fragmentSize);
+	}
+
+	int id() {
+		return id;
+	}
+
+	boolean hasUnsentFragments() {
+		return !cancelled && sentFragments < fragmentCount;
+	}
+
+	/**
+	 * Sends the next fragment. The fragment is a retained slice of the stream's data, released once it has been encoded, or handled
+	 * on in-memory connections, so that the data stays alive for as long as any fragment may still be read, independently of the stream.
+	 */
+	void sendNextFragment() {
+		int offset = sentFragments * fragmentSize;
+		int length = Math.min(fragmentSize, totalBytes - offset);
+		ByteBuf fragment = data.retainedSlice(data.readerIndex() + offset, length);
+
+		PooledPayloadBuffers.sendAndRelease(sender, new StreamFragmentPayload(id, sentFragments++, channel, totalBytes, fragmentSize, fragment), fragment);
+	}
+
+	void sendCancel() {
+		sender.sendPacket(new StreamControlPayload(StreamControlPayload.Action.CANCEL, id, 0));
+	}
+
+	/**
+	 * @return whether the stream is finished and should be removed
+	 */
+	boolean acknowledge(int receivedBytes) {
+		acknowledgedFragments++;
+		acknowledgedBytes = receivedBytes;
+
+		if (cancelled) {
+			return true;
+		}
+
+		if (acknowledgedFragments == fragmentCount) {
+			release();
+			completion.complete(null);
+			return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * @return whether the stream is finished and should be removed
+	 */
+	boolean markCancelled() {
+		if (cancelled) {
+			return false;
+		}
+
+		cancelled = true;
+		completion.completeExceptionally(new CancellationException("Stream " + id + " on channel " + channel + " was cancelled"));
+		release();
+		return true;
+	}
+
+	boolean wasStarted() {
+		return sentFragments > 0;
+	}
+
+	/**
+	 * Releases the stream's own reference to the data. Fragments that are still queued hold their own references.
+	 */
+	private void release() {
+		if (!released) {
+			released = true;
+			data.release();
+		}
+	}
+
+	/**
+	 * Called when the connection is closed.
+	 */
+	void close() {
+		if (!cancelled) {
+			cancelled = true;
+			completion.completeExceptionally(new CancellationException("Connection closed"));
+		}
+
+		release();
+	}
+
+	@Override
+	public ResourceLocation channel() {
+		return channel;
+	}
+
+	@Override
+	public int totalBytes() {
+		return totalBytes;
+	}
+
+	@Override
+	public int acknowledgedBytes() {
+		return acknowledgedBytes;
+	}
+
+	@Override
+	public CompletableFuture<Void> completion() {
+		return completion;
+	}
+
+	@Override
+	public void cancel() {
+		state.cancel(this);
+	}
+}
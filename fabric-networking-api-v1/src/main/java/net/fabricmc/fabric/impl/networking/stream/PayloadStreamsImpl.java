@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.networking.stream;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import io.netty.buffer.ByteBuf;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import net.minecraft.network.Connection;
+import net.minecraft.network.ConnectionProtocol;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.PacketSendListener;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.network.protocol.PacketFlow;
+import net.minecraft.network.protocol.common.ClientboundCustomPayloadPacket;
+import net.minecraft.network.protocol.common.ServerboundCustomPayloadPacket;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.entity.player.Player;
+import net.neoforged.neoforge.network.handling.IPayloadContext;
+import net.fabricmc.fabric.api.networking.v1.PacketSender;
+import net.fabricmc.fabric.api.networking.v1.PayloadStreams;
+import net.fabricmc.fabric.impl.networking.ConnectionBoundPacketSender;
+import net.fabricmc.fabric.impl.networking.GlobalReceiverRegistry;
+import net.fabricmc.fabric.impl.networking.PayloadTypeRegistryImpl;
+import org.sinytra.fabric.networking_api.NeoCommonNetworking;
+import org.sinytra.fabric.networking_api.NeoNetworkRegistrar;
+
+public final class PayloadStreamsImpl {
+	private static final Logger LOGGER = LoggerFactory.getLogger(PayloadStreamsImpl.class);
+
+	/**
+	 * Size of the data in a single fragment, small enough for the fragment to fit into a serverbound custom payload.
+	 */
+	public static final int FRAGMENT_SIZE = 30000;
+	/**
+	 * Maximum number of unacknowledged fragments per connection.
+	 */
+	public static final int SEND_WINDOW = 8;
+	/**
+	 * Maximum length of a single stream. The receiving end rejects streams declaring a larger length before buffering any of their data.
+	 */
+	public static final int MAX_STREAM_LENGTH = 32 * 1024 * 1024;
+	/**
+	 * Maximum number of incoming streams buffered at once per connection.
+	 */
+	public static final int MAX_INCOMING_STREAMS = 32;
+	/**
+	 * Maximum number of bytes reserved by the incoming streams of a connection at once, counting the declared length of each stream.
+	 */
+	public static final long MAX_INCOMING_BYTES = 64L * 1024 * 1024;
+
+	private static final Map<PacketFlow, Map<ResourceLocation, PayloadStreams.Receiver>> RECEIVERS = new EnumMap<>(PacketFlow.class);
+
+	static {
+		for (PacketFlow flow : PacketFlow.values()) {
+			RECEIVERS.put(flow, new ConcurrentHashMap<>());
+		}
+	}
+
+	public static void init() {
+		PayloadTypeRegistryImpl.CONFIGURATION_C2S.register(StreamFragmentPayload.TYPE, StreamFragmentPayload.CODEC);
+		PayloadTypeRegistryImpl.CONFIGURATION_S2C.register(StreamFragmentPayload.TYPE, StreamFragmentPayload.CODEC);
+		PayloadTypeRegistryImpl.PLAY_C2S.register(StreamFragmentPayload.TYPE, StreamFragmentPayload.CODEC);
+		PayloadTypeRegistryImpl.PLAY_S2C.register(StreamFragmentPayload.TYPE, StreamFragmentPayload.CODEC);
+
+		PayloadTypeRegistryImpl.CONFIGURATION_C2S.register(StreamControlPayload.TYPE, StreamControlPayload.CODEC);
+		PayloadTypeRegistryImpl.CONFIGURATION_S2C.register(StreamControlPayload.TYPE, StreamControlPayload.CODEC);
+		PayloadTypeRegistryImpl.PLAY_C2S.register(StreamControlPayload.TYPE, StreamControlPayload.CODEC);
+		PayloadTypeRegistryImpl.PLAY_S2C.register(StreamControlPayload.TYPE, StreamControlPayload.CODEC);
+
+		for (NeoNetworkRegistrar registrar : new NeoNetworkRegistrar[]{NeoCommonNetworking.CONFIGURATION_REGISTRY, NeoCommonNetworking.PLAY_REGISTRY}) {
+			registerHandler(registrar, StreamFragmentPayload.TYPE, PayloadStreamsImpl::handleFragment);
+			registerHandler(registrar, StreamControlPayload.TYPE, PayloadStreamsImpl::handleControl);
+		}
+	}
+
+	private static <T extends CustomPacketPayload> void registerHandler(NeoNetworkRegistrar registrar, CustomPacketPayload.Type<T> type, BiConsumer<T, IPayloadContext> handler) {
+		for (PacketFlow flow : PacketFlow.values()) {
+			registrar.registerGlobalReceiver(type, flow, handler, Function.identity(), BiConsumer::accept);
+		}
+	}
+
+	public static boolean registerReceiver(PacketFlow flow, ResourceLocation channel, PayloadStreams.Receiver receiver) {
+		if (channel.toString().length() > GlobalReceiverRegistry.DEFAULT_CHANNEL_NAME_MAX_LENGTH) {
+			throw new IllegalArgumentException(String.format("Cannot register receiver for stream channel with name \"%s\" as it exceeds the maximum length of 128 characters", channel));
+		}
+
+		return RECEIVERS.get(flow).putIfAbsent(channel, receiver) == null;
+	}
+
+	@Nullable
+	public static PayloadStreams.Receiver unregisterReceiver(PacketFlow flow, ResourceLocation channel) {
+		return RECEIVERS.get(flow).remove(channel);
+	}
+
+	public static PayloadStreams.OutgoingStream send(PacketSender sender, ResourceLocation channel, ByteBuf data) {
+		if (!(sender instanceof ConnectionBoundPacketSender boundSender)) {
+			throw new IllegalArgumentException("Packet sender " + sender + " is not bound to a connection");
+		}
+
+		if (channel.toString().length() > GlobalReceiverRegistry.DEFAULT_CHANNEL_NAME_MAX_LENGTH) {
+			throw new IllegalArgumentException(String.format("Cannot stream to channel with name \"%s\" as it exceeds the maximum length of 128 characters", channel));
+		}
+
+		if (data.readableBytes() > MAX_STREAM_LENGTH) {
+			throw new IllegalArgumentException("Cannot stream " + data.readableBytes() + " bytes to channel " + channel + ", the maximum is " + MAX_STREAM_LENGTH + " bytes");
+		}
+
+		Connection connection = boundSender.connection();
+		return getState(connection).send(sender, channel, data, connection.isMemoryConnection());
+	}
+
+	public static void onDisconnect(Connection connection) {
+		getState(connection).close();
+	}
+
+	private static StreamConnectionState getState(Connection connection) {
+		return ((StreamConnectionExtensions) connection).getStreamState();
+	}
+
+	private static void handleFragment(StreamFragmentPayload payload, IPayloadContext context) {
+		StreamConnectionState state = getState(context.connection());
+		ByteBuf data = payload.data();
+
+		if (context.connection().isMemoryConnection()) {
+			// In-memory connections pass the sender's slice along, take our own reference to it
+			data.retain();
+		}
+
+		context.reply(new StreamControlPayload(StreamControlPayload.Action.ACKNOWLEDGE, payload.streamId(), payload.index() * payload.fragmentSize() + data.readableBytes()));
+
+		IncomingStream stream;
+
+		if (payload.index() == 0) {
+			PayloadStreams.Receiver receiver = RECEIVERS.get(context.flow()).get(payload.channel());
+
+			if (receiver == null) {
+				LOGGER.debug("Rejecting stream on channel {} as no receiver is registered for {}", payload.channel(), context.flow());
+				data.release();
+				context.reply(new StreamControlPayload(StreamControlPayload.Action.REJECT, payload.streamId(), 0));
+				return;
+			}
+
+			stream = state.startIncoming(payload.streamId(), payload.channel(), receiver, payload.totalLength());
+
+			if (stream == null) {
+				LOGGER.debug("Rejecting stream of {} bytes on channel {}, as it exceeds the limits of the connection", payload.totalLength(), payload.channel());
+				data.release();
+				context.reply(new StreamControlPayload(StreamControlPayload.Action.REJECT, payload.streamId(), 0));
+				return;
+			}
+		} else {
+			stream = state.getIncoming(payload.streamId());
+		}
+
+		if (stream == null) {
+			// Rejected, cancelled or unknown stream, with fragments still in flight
+			data.release();
+			return;
+		}
+
+		StreamContext streamContext = new StreamContext(stream.channel(), context);
+
+		try {
+			stream.add(payload.index(), data);
+		} catch (IllegalStateException e) {
+			state.removeIncoming(payload.streamId());
+			stream.release();
+			throw e;
+		}
+
+		stream.receiver().progress(stream.receivedBytes(), stream.totalBytes(), streamContext);
+
+		if (stream.isComplete()) {
+			state.removeIncoming(payload.streamId());
+
+			try {
+				stream.receiver().receive(new FriendlyByteBuf(stream.buffer()), streamContext);
+			} finally {
+				stream.release();
+			}
+		}
+	}
+
+	private static void handleControl(StreamControlPayload payload, IPayloadContext context) {
+		StreamConnectionState state = getState(context.connection());
+
+		switch (payload.action()) {
+		case ACKNOWLEDGE -> state.acknowledge(payload.streamId(), payload.value());
+		case REJECT -> state.reject(payload.streamId());
+		case CANCEL -> {
+			IncomingStream stream = state.removeIncoming(payload.streamId());
+
+			if (stream != null) {
+				stream.release();
+				stream.receiver().cancelled(new StreamContext(stream.channel(), context));
+			}
+		}
+		}
+	}
+
+	private record StreamContext(ResourceLocation channel, IPayloadContext context) implements PayloadStreams.Context {
+		@Nullable
+		@Override
+		public Player player() {
+			return context.protocol() == ConnectionProtocol.PLAY ? context.player() : null;
+		}
+
+		@Override
+		public PacketSender responseSender() {
+			return new ReplyPacketSender(context);
+		}
+	}
+
+	/**
+	 * Replies through the connection a payload was received on, for either side.
+	 */
+	private record ReplyPacketSender(IPayloadContext context) implements ConnectionBoundPacketSender {
+		@Override
+		public Connection connection() {
+			return context.connection();
+		}
+
+		@Override
+		public Packet<?> createPacket(CustomPacketPayload payload) {
+			Objects.requireNonNull(payload, "Payload cannot be null");
+
+			return context.flow() == PacketFlow.SERVERBOUND ? new ClientboundCustomPayloadPacket(payload) : new ServerboundCustomPayloadPacket(payload);
+		}
+
+		@Override
+		public void sendPacket(Packet<?> packet, @Nullable PacketSendListener callback) {
+			Objects.requireNonNull(packet, "Packet cannot be null");
+
+			context.connection().send(packet, callback);
+		}
+
+		@Override
+		public void disconnect(Component disconnectReason) {
+			Objects.requireNonNull(disconnectReason, "Disconnect reason cannot be null");
+
+			context.disconnect(disconnectReason);
+		}
+	}
+
+	private PayloadStreamsImpl() {
+	}
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.networking.stream;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import io.netty.buffer.ByteBuf;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import org.jetbrains.annotations.Nullable;
+import net.minecraft.resources.ResourceLocation;
+import net.fabricmc.fabric.api.networking.v1.PacketSender;
+import net.fabricmc.fabric.api.networking.v1.PayloadStreams;
+
+/**
+ * The payload streams of a single connection, in both directions.
+ *
+ * <p>All outgoing streams share one send window: at most {@link PayloadStreamsImpl#SEND_WINDOW} fragments may be unacknowledged at once.
+ * Streams take turns sending fragments, so a large stream cannot hold back a small one started after it.
+ */
+public final class StreamConnectionState {
+	private final Int2ObjectMap<OutgoingStreamImpl> outgoing = new Int2ObjectOpenHashMap<>();
+	private final Deque<OutgoingStreamImpl> sendQueue = new ArrayDeque<>();
+	private final Int2ObjectMap<IncomingStream> incoming = new Int2ObjectOpenHashMap<>();
+	private int nextStreamId;
+	private int fragmentsInFlight;
+	// Sum of the declared lengths of the incoming streams
+	private long incomingBytes;
+	private boolean closed;
+
+	// Outgoing
+
+	public synchronized PayloadStreams.OutgoingStream send(PacketSender sender, ResourceLocation channel, ByteBuf data, boolean local) {
+		OutgoingStreamImpl stream = new OutgoingStreamImpl(this, sender, nextStreamId++, channel, data, local);
+
+		if (closed) {
+			stream.close();
+			return stream;
+		}
+
+		outgoing.put(stream.id(), stream);
+		sendQueue.addLast(stream);
+		pump();
+		return stream;
+	}
+
+	private void pump() {
+		while (fragmentsInFlight < PayloadStreamsImpl.SEND_WINDOW && !sendQueue.isEmpty()) {
+			OutgoingStreamImpl stream = sendQueue.pollFirst();
+			stream.sendNextFragment();
+			fragmentsInFlight++;
+
+			if (stream.hasUnsentFragments()) {
+				sendQueue.addLast(stream);
+			}
+		}
+	}
+
+	public synchronized void acknowledge(int streamId, int receivedBytes) {
+		// Every sent fragment is acknowledged exactly once, even those of cancelled or rejected streams
+		fragmentsInFlight = Math.max(0, fragmentsInFlight - 1);
+		OutgoingStreamImpl stream = outgoing.get(streamId);
+
+		if (stream != null && stream.acknowledge(receivedBytes)) {
+			outgoing.remove(streamId);
+		}
+
+		pump();
+	}
+
+	synchronized void cancel(OutgoingStreamImpl stream) {
+		if (outgoing.get(stream.id()) != stream) {
+			return;
+		}
+
+		sendQueue.remove(stream);
+
+		if (stream.wasStarted()) {
+			stream.sendCancel();
+		}
+
+		if (stream.markCancelled()) {
+			outgoing.remove(stream.id());
+		}
+	}
+
+	public synchronized void reject(int streamId) {
+		OutgoingStreamImpl stream = outgoing.get(streamId);
+
+		if (stream != null) {
+			sendQueue.remove(stream);
+
+			if (stream.markCancelled()) {
+				outgoing.remove(streamId);
+			}
+		}
+	}
+
+	// Incoming
+
+	@Nullable
+	synchronized IncomingStream getIncoming(int streamId) {
+		return incoming.get(streamId);
+	}
+
+	/**
+	 * Starts buffering an incoming stream, reserving its declared length against the {@linkplain PayloadStreamsImpl#MAX_INCOMING_BYTES
+	 * buffered bytes} of the connection. Any previous stream with the same id is dropped.
+	 *
+	 * @return the stream, or {@code null} if the connection is closed or the stream exceeds one of the limits on incoming streams
+	 */
+	@Nullable
+	public synchronized IncomingStream startIncoming(int streamId, ResourceLocation channel, PayloadStreams.Receiver receiver, int totalBytes) {
+		if (closed || totalBytes < 0 || totalBytes > PayloadStreamsImpl.MAX_STREAM_LENGTH) {
+			return null;
+		}
+
+		IncomingStream previous = removeIncoming(streamId);
+
+		if (previous != null) {
+			previous.release();
+		}
+
+		if (incoming.size() >= PayloadStreamsImpl.MAX_INCOMING_STREAMS || incomingBytes + totalBytes > PayloadStreamsImpl.MAX_INCOMING_BYTES) {
+			return null;
+		}
+
+		IncomingStream stream = new IncomingStream(channel, receiver, totalBytes);
+		incoming.put(streamId, stream);
+		incomingBytes += totalBytes;
+		return stream;
+	}
+
+	/**
+	 * Stops tracking an incoming stream, freeing its reservation. The caller is responsible for releasing the returned stream.
+	 */
+	@Nullable
+	public synchronized IncomingStream removeIncoming(int streamId) {
+		IncomingStream stream = incoming.remove(streamId);
+
+		if (stream != null) {
+			incomingBytes -= stream.totalBytes();
+		}
+
+		return stream;
+	}
+
+	public synchronized void close() {
+		closed = true;
+
+		for (OutgoingStreamImpl stream : outgoing.values()) {
+			stream.close();
+		}
+
+		for (IncomingStream stream : incoming.values()) {
+			stream.release();
+		}
+
+		outgoing.clear();
+		sendQueue.clear();
+		incoming.clear();
+		incomingBytes = 0;
+	}
+}
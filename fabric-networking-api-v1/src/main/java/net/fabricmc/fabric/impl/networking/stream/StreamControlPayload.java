@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.networking.stream;
+
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+
+/**
+ * Flow control message of a payload stream.
+ *
+ * @param action the action
+ * @param streamId the id of the stream, in the id space of the sending end of the stream
+ * @param value the number of bytes received so far for {@link Action#ACKNOWLEDGE}, unused otherwise
+ */
+public record StreamControlPayload(Action action, int streamId, int value) implements CustomPacketPayload {
+	public static final CustomPacketPayload.Type<StreamControlPayload> TYPE = new CustomPacketPayload.Type<>(ResourceLocation.fromNamespaceAndPath("fabric", "stream_control"));
+	public static final StreamCodec<FriendlyByteBuf, StreamControlPayload> CODEC = CustomPacketPayload.codec(StreamControlPayload::write, StreamControlPayload::new);
+
+	private StreamControlPayload(FriendlyByteBuf buf) {
+		this(buf.readEnum(Action.class), buf.readVarInt(), buf.readVarInt());
+	}
+
+	private void write(FriendlyByteBuf buf) {
+		buf.writeEnum(action);
+		buf.writeVarInt(streamId);
+		buf.writeVarInt(value);
+	}
+
+	@Override
+	public Type<? extends CustomPacketPayload> type() {
+		return TYPE;
+	}
+
+	public enum Action {
+		/**
+		 * Sent by the receiving end for every fragment it received, opening the send window for another fragment.
+		 */
+		ACKNOWLEDGE,
+		/**
+		 * Sent by the receiving end when it has no receiver for the stream's channel.
+		 */
+		REJECT,
+		/**
+		 * Sent by the sending end when it cancelled a stream after sending some of its fragments.
+		 */
+		CANCEL
+	}
+}
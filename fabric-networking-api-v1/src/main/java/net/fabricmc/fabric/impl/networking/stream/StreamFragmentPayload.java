@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.networking.stream;
+
+import io.netty.buffer.ByteBuf;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+
+/**
+ * A single fragment of a payload stream.
+ *
+ * <p>When decoded from the network, {@link #data()} is a retained slice of the incoming packet buffer,
+ * which the receiving end adds to its reassembly buffer without copying.
+ */
+public record StreamFragmentPayload(int streamId, int index, ResourceLocation channel, int totalLength, int fragmentSize, ByteBuf data) implements CustomPacketPayload {
+	public static final CustomPacketPayload.Type<StreamFragmentPayload> TYPE = new CustomPacketPayload.Type<>(ResourceLocation.fromNamespaceAndPath("fabric", "stream_fragment"));
+	public static final StreamCodec<FriendlyByteBuf, StreamFragmentPayload> CODEC = CustomPacketPayload.codec(StreamFragmentPayload::write, StreamFragmentPayload::new);
+
+	private StreamFragmentPayload(FriendlyByteBuf buf) {
+		this(buf.readVarInt(), buf.readVarInt(), buf.readResourceLocation(), buf.readVarInt(), buf.readVarInt(), buf.readRetainedSlice(buf.readVarInt()));
+	}
+
+	private void write(FriendlyByteBuf buf) {
+		buf.writeVarInt(streamId);
+		buf.writeVarInt(index);
+		buf.writeResourceLocation(channel);
+		buf.writeVarInt(totalLength);
+		buf.writeVarInt(fragmentSize);
+		buf.writeVarInt(data.readableBytes());
+		// Do not move the reader index, the fragment may be encoded again for a different connection
+		buf.writeBytes(data, data.readerIndex(), data.readableBytes());
+	}
+
+	@Override
+	public Type<? extends CustomPacketPayload> type() {
+		return TYPE;
+	}
+}
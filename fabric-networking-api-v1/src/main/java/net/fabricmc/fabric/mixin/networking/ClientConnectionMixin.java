@@ -20,11 +20,15 @@ import io.netty.channel.ChannelHandlerContext;
 import org.sinytra.fabric.networking_api.NeoListenableNetworkHandler;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import net.fabricmc.fabric.impl.networking.NetworkHandlerExtensions;
 import net.fabricmc.fabric.impl.networking.PacketCallbackListener;
+import net.fabricmc.fabric.impl.networking.stream.PayloadStreamsImpl;
+import net.fabricmc.fabric.impl.networking.stream.StreamConnectionExtensions;
+import net.fabricmc.fabric.impl.networking.stream.StreamConnectionState;
 import net.minecraft.network.Connection;
 import net.minecraft.network.PacketListener;
 import net.minecraft.network.PacketSendListener;
@@ -32,10 +36,18 @@ import net.minecraft.network.ProtocolInfo;
 import net.minecraft.network.protocol.Packet;
 
 @Mixin(Connection.class)
-abstract class ClientConnectionMixin {
+abstract class ClientConnectionMixin implements StreamConnectionExtensions {
 	@Shadow
 	private PacketListener packetListener;
 
+	@Unique
+	private final StreamConnectionState streamState = new StreamConnectionState();
+
+	@Override
+	public StreamConnectionState getStreamState() {
+		return this.streamState;
+	}
+
 	@Inject(method = "sendPacket", at = @At(value = "FIELD", target = "Lnet/minecraft/network/Connection;sentPackets:I"))
 	private void checkPacket(Packet<?> packet, PacketSendListener callback, boolean flush, CallbackInfo ci) {
 		if (this.packetListener instanceof PacketCallbackListener) {
@@ -58,6 +70,7 @@ abstract class ClientConnectionMixin {
 		if (packetListener instanceof NeoListenableNetworkHandler handler) {
 			handler.handleDisconnect();
 		}
+		PayloadStreamsImpl.onDisconnect((Connection) (Object) this);
 	}
 
 	@Inject(method = "handleDisconnection", at = @At(value = "INVOKE", target = "Lnet/minecraft/network/PacketListener;onDisconnect(Lnet/minecraft/network/DisconnectionDetails;)V"))
@@ -68,5 +81,6 @@ abstract class ClientConnectionMixin {
 		if (packetListener instanceof NeoListenableNetworkHandler handler) {
 			handler.handleDisconnect();
 		}
+		PayloadStreamsImpl.onDisconnect((Connection) (Object) this);
 	}
 }
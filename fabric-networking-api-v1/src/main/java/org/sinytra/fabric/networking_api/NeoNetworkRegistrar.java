@@ -1,6 +1,7 @@
 package org.sinytra.fabric.networking_api;
 
 import net.fabricmc.fabric.impl.networking.PayloadTypeRegistryImpl;
+import net.fabricmc.fabric.impl.networking.PooledPayloadBuffers;
 import net.fabricmc.fabric.mixin.networking.accessor.NetworkRegistryAccessor;
 import net.minecraft.network.ConnectionProtocol;
 import net.minecraft.network.FriendlyByteBuf;
@@ -18,6 +19,7 @@ import org.apache.commons.lang3.function.TriConsumer;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -115,13 +117,20 @@ public class NeoNetworkRegistrar {
 
         @Override
         public void handle(PAYLOAD arg, IPayloadContext context) {
+            CompletableFuture<Void> global = null;
+            CompletableFuture<Void> local = null;
             NeoSubHandler globalHandler = globalReceivers.get(context.flow());
             if (globalHandler != null) {
-                context.enqueueWork(() -> globalHandler.consumer().accept(globalHandler.handler(), arg, globalHandler.ctxFactory().apply(context)));
+                global = context.enqueueWork(() -> globalHandler.consumer().accept(globalHandler.handler(), arg, globalHandler.ctxFactory().apply(context)));
             }
             NeoSubHandler localHandler = localReceivers.get(context.listener());
             if (localHandler != null) {
-                context.enqueueWork(() -> localHandler.consumer().accept(localHandler.handler(), arg, localHandler.ctxFactory().apply(context)));
+                local = context.enqueueWork(() -> localHandler.consumer().accept(localHandler.handler(), arg, localHandler.ctxFactory().apply(context)));
+            }
+            if (context.connection().isMemoryConnection()) {
+                // Payloads are not encoded on in-memory connections, release pooled buffers sent along with them once handled
+                CompletableFuture.allOf(global != null ? global : CompletableFuture.completedFuture(null), local != null ? local : CompletableFuture.completedFuture(null))
+                    .whenComplete((v, t) -> PooledPayloadBuffers.onHandled(arg));
             }
         }
 
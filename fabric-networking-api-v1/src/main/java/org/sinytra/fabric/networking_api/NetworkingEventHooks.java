@@ -1,6 +1,7 @@
 package org.sinytra.fabric.networking_api;
 
 import net.fabricmc.fabric.api.networking.v1.ServerConfigurationConnectionEvents;
+import net.fabricmc.fabric.impl.networking.stream.PayloadStreamsImpl;
 import net.fabricmc.loader.api.FabricLoader;
 import net.minecraft.SharedConstants;
 import net.minecraft.server.commands.DebugConfigCommand;
@@ -18,6 +19,8 @@ import org.sinytra.fabric.networking_api.server.NeoServerPlayNetworking;
 public class NetworkingEventHooks {
 
     public NetworkingEventHooks(IEventBus bus) {
+        PayloadStreamsImpl.init();
+
         bus.addListener(NetworkingEventHooks::onConfiguration);
         NeoForge.EVENT_BUS.addListener(NetworkingEventHooks::registerCommands);
         NeoForge.EVENT_BUS.addListener(NetworkingEventHooks::onPlayerReady);
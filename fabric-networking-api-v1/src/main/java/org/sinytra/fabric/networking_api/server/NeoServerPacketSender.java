@@ -1,7 +1,7 @@
 package org.sinytra.fabric.networking_api.server;
 
-import net.fabricmc.fabric.api.networking.v1.PacketSender;
 import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+import net.fabricmc.fabric.impl.networking.ConnectionBoundPacketSender;
 import net.minecraft.network.Connection;
 import net.minecraft.network.PacketSendListener;
 import net.minecraft.network.chat.Component;
@@ -11,7 +11,7 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.Objects;
 
-public record NeoServerPacketSender(Connection connection) implements PacketSender {
+public record NeoServerPacketSender(Connection connection) implements ConnectionBoundPacketSender {
     @Override
     public Packet<?> createPacket(CustomPacketPayload packet) {
         return ServerPlayNetworking.createS2CPacket(packet);
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.test.networking.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import net.minecraft.network.ConnectionProtocol;
+import net.minecraft.network.protocol.PacketFlow;
+import net.minecraft.resources.ResourceLocation;
+import net.fabricmc.fabric.impl.networking.GlobalReceiverRegistry;
+
+public class GlobalReceiverRegistryTests {
+	private static final ResourceLocation CHANNEL = ResourceLocation.fromNamespaceAndPath("fabric", "receiver_test");
+
+	@Test
+	void lookupsSeeRegistrationChanges() {
+		GlobalReceiverRegistry<String> registry = new GlobalReceiverRegistry<>(PacketFlow.SERVERBOUND, ConnectionProtocol.LOGIN, null);
+
+		assertNull(registry.getHandler(CHANNEL));
+
+		assertTrue(registry.registerGlobalReceiver(CHANNEL, "first"));
+		assertFalse(registry.registerGlobalReceiver(CHANNEL, "second"));
+		assertEquals("first", registry.getHandler(CHANNEL));
+		assertEquals(Set.of(CHANNEL), registry.getChannels());
+
+		assertEquals("first", registry.unregisterGlobalReceiver(CHANNEL));
+		assertNull(registry.getHandler(CHANNEL));
+		assertTrue(registry.getHandlers().isEmpty());
+	}
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.test.networking.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.netty.handler.codec.DecoderException;
+import org.junit.jupiter.api.Test;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.codec.StreamCodec;
+import net.fabricmc.fabric.api.networking.v1.PacketByteBufs;
+import net.fabricmc.fabric.impl.networking.CompressedStreamCodec;
+
+public class PayloadCompressionTests {
+	private static final StreamCodec<FriendlyByteBuf, String> CODEC = new CompressedStreamCodec<>(ByteBufCodecs.stringUtf8(Integer.MAX_VALUE));
+
+	@Test
+	void compressesRepetitivePayloads() {
+		String value = "{\"block\":\"minecraft:stone\"}".repeat(200);
+		FriendlyByteBuf buf = PacketByteBufs.create();
+
+		CODEC.encode(buf, value);
+		int encodedSize = buf.readableBytes();
+
+		assertTrue(encodedSize < value.length() / 10, "Payload was not compressed, encoded size is " + encodedSize);
+		assertEquals(value, CODEC.decode(buf));
+		assertEquals(0, buf.readableBytes());
+	}
+
+	@Test
+	void keepsSmallPayloadsUncompressed() {
+		String value = "Hello";
+		FriendlyByteBuf buf = PacketByteBufs.create();
+
+		CODEC.encode(buf, value);
+
+		// Flag byte, length and the string itself
+		assertEquals(1 + 1 + value.length(), buf.readableBytes());
+		assertEquals(value, CODEC.decode(buf));
+	}
+
+	@Test
+	void decodesFollowingData() {
+		String value = "a".repeat(1000);
+		FriendlyByteBuf buf = PacketByteBufs.create();
+
+		CODEC.encode(buf, value);
+		buf.writeVarInt(42);
+
+		assertEquals(value, CODEC.decode(buf));
+		assertEquals(42, buf.readVarInt());
+	}
+
+	@Test
+	void rejectsInvalidCompressedLength() {
+		FriendlyByteBuf truncated = PacketByteBufs.create();
+		truncated.writeByte(1);
+		truncated.writeVarInt(1000);
+		truncated.writeVarInt(100);
+		truncated.writeZero(10);
+
+		assertThrows(DecoderException.class, () -> CODEC.decode(truncated));
+
+		FriendlyByteBuf negative = PacketByteBufs.create();
+		negative.writeByte(1);
+		negative.writeVarInt(1000);
+		negative.writeVarInt(-1);
+
+		assertThrows(DecoderException.class, () -> CODEC.decode(negative));
+	}
+
+	@Test
+	void decodesFromBufferSubclass() {
+		String value = "a".repeat(1000);
+		FriendlyByteBuf buf = new FriendlyByteBuf(PacketByteBufs.create()) {
+		};
+
+		CODEC.encode(buf, value);
+
+		assertEquals(value, CODEC.decode(buf));
+	}
+}
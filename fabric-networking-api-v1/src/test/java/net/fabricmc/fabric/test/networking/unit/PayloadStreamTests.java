@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.test.networking.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.resources.ResourceLocation;
+import net.fabricmc.fabric.api.networking.v1.PacketByteBufs;
+import net.fabricmc.fabric.impl.networking.stream.StreamControlPayload;
+import net.fabricmc.fabric.impl.networking.stream.StreamFragmentPayload;
+
+public class PayloadStreamTests {
+	private static final ResourceLocation CHANNEL = ResourceLocation.fromNamespaceAndPath("fabric", "stream_test");
+
+	@Test
+	void fragmentRoundTrip() {
+		ByteBuf data = Unpooled.copiedBuffer("Hello stream", StandardCharsets.UTF_8);
+		FriendlyByteBuf buf = PacketByteBufs.create();
+
+		StreamFragmentPayload.CODEC.encode(buf, new StreamFragmentPayload(3, 1, CHANNEL, 40000, 30000, data.slice(6, 6)));
+		StreamFragmentPayload decoded = StreamFragmentPayload.CODEC.decode(buf);
+
+		assertEquals(3, decoded.streamId());
+		assertEquals(1, decoded.index());
+		assertEquals(CHANNEL, decoded.channel());
+		assertEquals(40000, decoded.totalLength());
+		assertEquals(30000, decoded.fragmentSize());
+		assertEquals("stream", decoded.data().toString(StandardCharsets.UTF_8));
+		// Encoding must not consume the source, it is re-encoded for every connection
+		assertEquals(12, data.readableBytes());
+		assertEquals(0, buf.readableBytes());
+
+		// The decoded data is a retained slice, owned by the receiver
+		assertEquals(2, buf.refCnt());
+		decoded.data().release();
+		assertEquals(1, buf.refCnt());
+	}
+
+	@Test
+	void controlRoundTrip() {
+		FriendlyByteBuf buf = PacketByteBufs.create();
+
+		StreamControlPayload.CODEC.encode(buf, new StreamControlPayload(StreamControlPayload.Action.ACKNOWLEDGE, 7, 60000));
+
+		assertEquals(new StreamControlPayload(StreamControlPayload.Action.ACKNOWLEDGE, 7, 60000), StreamControlPayload.CODEC.decode(buf));
+	}
+}
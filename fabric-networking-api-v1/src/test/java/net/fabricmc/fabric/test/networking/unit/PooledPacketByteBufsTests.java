@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.test.networking.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.ref.Cleaner;
+import java.lang.reflect.RecordComponent;
+
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.PacketSendListener;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.network.protocol.common.ClientboundCustomPayloadPacket;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import net.fabricmc.fabric.api.networking.v1.PacketByteBufs;
+import net.fabricmc.fabric.api.networking.v1.PacketSender;
+import net.fabricmc.fabric.impl.networking.PooledPayloadBuffers;
+
+public class PooledPacketByteBufsTests {
+	@Test
+	void releasesAfterSuccessfulSend() {
+		FriendlyByteBuf buf = PacketByteBufs.pooled();
+		buf.writeVarInt(42);
+
+		PacketByteBufs.sendAndRelease(new CompletingSender(true), new BufPayload(buf), buf);
+
+		assertEquals(0, buf.refCnt());
+	}
+
+	@Test
+	void releasesAfterFailedSend() {
+		FriendlyByteBuf buf = PacketByteBufs.pooledDirect();
+		assertTrue(buf.isDirect());
+
+		PacketByteBufs.sendAndRelease(new CompletingSender(false), new BufPayload(buf), buf);
+
+		assertEquals(0, buf.refCnt());
+	}
+
+	@Test
+	void releasesHandledInMemoryPayload() {
+		FriendlyByteBuf buf = PacketByteBufs.pooled();
+		BufPayload payload = new BufPayload(buf);
+
+		PooledPayloadBuffers.trackInMemory(payload, buf);
+		assertEquals(1, buf.refCnt());
+
+		PooledPayloadBuffers.onHandled(payload);
+		assertEquals(0, buf.refCnt());
+
+		// Handling twice must not release twice
+		PooledPayloadBuffers.onHandled(payload);
+	}
+
+	@Test
+	void releasesUnhandledInMemoryPayloadWhenCleaned() {
+		FriendlyByteBuf buf = PacketByteBufs.pooled();
+		BufPayload payload = new BufPayload(buf);
+		// Stands in for the garbage collection of a payload that is never handled, without depending on when it happens
+		Cleaner.Cleanable cleanable = Cleaner.create().register(payload, new PooledPayloadBuffers.Release(buf));
+
+		cleanable.clean();
+		assertEquals(0, buf.refCnt(), "Buffer of an unhandled payload was leaked");
+
+		// Cleaning twice must not release twice
+		cleanable.clean();
+	}
+
+	@Test
+	void releaseDoesNotReferencePayload() {
+		// A cleaning action referencing the payload would keep it reachable, so it would never be cleaned
+		for (RecordComponent component : PooledPayloadBuffers.Release.class.getRecordComponents()) {
+			assertFalse(component.getType().isAssignableFrom(BufPayload.class), "Release references the payload through " + component.getName());
+		}
+	}
+
+	private record BufPayload(FriendlyByteBuf data) implements CustomPacketPayload {
+		private static final CustomPacketPayload.Type<BufPayload> ID = new Type<>(ResourceLocation.parse("fabric:pooled_test"));
+
+		@Override
+		public Type<? extends CustomPacketPayload> type() {
+			return ID;
+		}
+	}
+
+	/**
+	 * Completes every write immediately, like a remote connection would once the packet has been encoded.
+	 */
+	private record CompletingSender(boolean success) implements PacketSender {
+		@Override
+		public Packet<?> createPacket(CustomPacketPayload payload) {
+			return new ClientboundCustomPayloadPacket(payload);
+		}
+
+		@Override
+		public void sendPacket(Packet<?> packet, @Nullable PacketSendListener callback) {
+			if (callback != null) {
+				if (success) {
+					callback.onSuccess();
+				} else {
+					callback.onFailure();
+				}
+			}
+		}
+
+		@Override
+		public void disconnect(Component disconnectReason) {
+		}
+	}
+}
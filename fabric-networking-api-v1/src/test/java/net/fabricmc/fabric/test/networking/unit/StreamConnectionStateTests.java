@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.test.networking.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+import net.minecraft.network.PacketSendListener;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.network.protocol.common.ClientboundCustomPayloadPacket;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import net.fabricmc.fabric.api.networking.v1.PacketSender;
+import net.fabricmc.fabric.api.networking.v1.PayloadStreams;
+import net.fabricmc.fabric.impl.networking.stream.PayloadStreamsImpl;
+import net.fabricmc.fabric.impl.networking.stream.StreamConnectionState;
+import net.fabricmc.fabric.impl.networking.stream.StreamControlPayload;
+import net.fabricmc.fabric.impl.networking.stream.StreamFragmentPayload;
+
+public class StreamConnectionStateTests {
+	private static final ResourceLocation CHANNEL = ResourceLocation.fromNamespaceAndPath("fabric", "stream_test");
+
+	private static final PayloadStreams.Receiver RECEIVER = (data, context) -> {
+	};
+
+	private final StreamConnectionState state = new StreamConnectionState();
+	private final RecordingSender sender = new RecordingSender();
+
+	private static ByteBuf data(int fragments) {
+		return Unpooled.buffer().writeZero(fragments * PayloadStreamsImpl.FRAGMENT_SIZE);
+	}
+
+	@Test
+	void limitsFragmentsInFlightToSendWindow() {
+		state.send(sender, CHANNEL, data(PayloadStreamsImpl.SEND_WINDOW + 2), false);
+
+		assertEquals(PayloadStreamsImpl.SEND_WINDOW, sender.fragments().size());
+
+		state.acknowledge(0, PayloadStreamsImpl.FRAGMENT_SIZE);
+		assertEquals(PayloadStreamsImpl.SEND_WINDOW + 1, sender.fragments().size());
+	}
+
+	@Test
+	void interleavesStreams() {
+		state.send(sender, CHANNEL, data(PayloadStreamsImpl.SEND_WINDOW + 4), false);
+		state.send(sender, CHANNEL, data(1), false);
+		assertEquals(PayloadStreamsImpl.SEND_WINDOW, sender.fragments().size());
+
+		// The first stream still has unsent fragments, but the second one only waits for its turn
+		state.acknowledge(0, PayloadStreamsImpl.FRAGMENT_SIZE);
+		state.acknowledge(0, 2 * PayloadStreamsImpl.FRAGMENT_SIZE);
+
+		List<StreamFragmentPayload> fragments = sender.fragments();
+		assertEquals(0, fragments.get(fragments.size() - 2).streamId());
+		assertEquals(1, fragments.get(fragments.size() - 1).streamId());
+	}
+
+	@Test
+	void completesOnceEveryFragmentIsAcknowledged() {
+		ByteBuf data = data(2);
+		PayloadStreams.OutgoingStream stream = state.send(sender, CHANNEL, data, false);
+
+		state.acknowledge(0, PayloadStreamsImpl.FRAGMENT_SIZE);
+		assertFalse(stream.completion().isDone());
+		assertEquals(0.5F, stream.progress());
+
+		state.acknowledge(0, 2 * PayloadStreamsImpl.FRAGMENT_SIZE);
+		assertTrue(stream.completion().isDone());
+		assertEquals(1.0F, stream.progress());
+
+		sender.completeWrites();
+		assertEquals(0, data.refCnt());
+	}
+
+	@Test
+	void cancelNotifiesRemoteEnd() {
+		ByteBuf data = data(PayloadStreamsImpl.SEND_WINDOW + 2);
+		PayloadStreams.OutgoingStream stream = state.send(sender, CHANNEL, data, false);
+
+		stream.cancel();
+
+		assertCancelled(stream);
+		assertEquals(List.of(new StreamControlPayload(StreamControlPayload.Action.CANCEL, 0, 0)), sender.controls());
+
+		// Acknowledgements of fragments sent before the cancellation must not send any more fragments
+		state.acknowledge(0, PayloadStreamsImpl.FRAGMENT_SIZE);
+		assertEquals(PayloadStreamsImpl.SEND_WINDOW, sender.fragments().size());
+
+		sender.completeWrites();
+		assertEquals(0, data.refCnt());
+	}
+
+	@Test
+	void rejectStopsSending() {
+		ByteBuf data = data(PayloadStreamsImpl.SEND_WINDOW + 2);
+		PayloadStreams.OutgoingStream stream = state.send(sender, CHANNEL, data, false);
+
+		state.reject(0);
+		assertCancelled(stream);
+
+		state.acknowledge(0, PayloadStreamsImpl.FRAGMENT_SIZE);
+		assertEquals(PayloadStreamsImpl.SEND_WINDOW, sender.fragments().size());
+		// The remote end already knows about rejected streams
+		assertTrue(sender.controls().isEmpty());
+
+		sender.completeWrites();
+		assertEquals(0, data.refCnt());
+	}
+
+	@Test
+	void closeKeepsQueuedFragmentsReadable() {
+		ByteBuf data = data(2);
+		PayloadStreams.OutgoingStream stream = state.send(sender, CHANNEL, data, false);
+
+		state.close();
+		assertCancelled(stream);
+		assertTrue(data.refCnt() > 0);
+
+		// The fragments may still be encoded after the connection was closed, so their data must not have been freed
+		for (StreamFragmentPayload fragment : sender.fragments()) {
+			assertEquals(PayloadStreamsImpl.FRAGMENT_SIZE, fragment.data().readableBytes());
+			fragment.data().getByte(0);
+		}
+
+		sender.completeWrites();
+		assertEquals(0, data.refCnt());
+	}
+
+	@Test
+	void sendAfterCloseReleasesData() {
+		state.close();
+
+		ByteBuf data = data(1);
+		PayloadStreams.OutgoingStream stream = state.send(sender, CHANNEL, data, false);
+
+		assertCancelled(stream);
+		assertTrue(sender.fragments().isEmpty());
+		assertEquals(0, data.refCnt());
+	}
+
+	@Test
+	void rejectsIncomingStreamsOverMaximumLength() {
+		assertNull(state.startIncoming(0, CHANNEL, RECEIVER, PayloadStreamsImpl.MAX_STREAM_LENGTH + 1));
+		assertNull(state.startIncoming(0, CHANNEL, RECEIVER, -1));
+		assertNotNull(state.startIncoming(0, CHANNEL, RECEIVER, PayloadStreamsImpl.MAX_STREAM_LENGTH));
+	}
+
+	@Test
+	void limitsOpenIncomingStreams() {
+		for (int i = 0; i < PayloadStreamsImpl.MAX_INCOMING_STREAMS; i++) {
+			assertNotNull(state.startIncoming(i, CHANNEL, RECEIVER, 1));
+		}
+
+		assertNull(state.startIncoming(PayloadStreamsImpl.MAX_INCOMING_STREAMS, CHANNEL, RECEIVER, 1));
+
+		// Restarting an open stream replaces it rather than opening another one
+		assertNotNull(state.startIncoming(0, CHANNEL, RECEIVER, 1));
+
+		state.removeIncoming(1);
+		assertNotNull(state.startIncoming(PayloadStreamsImpl.MAX_INCOMING_STREAMS, CHANNEL, RECEIVER, 1));
+	}
+
+	@Test
+	void limitsBufferedIncomingBytes() {
+		int streams = (int) (PayloadStreamsImpl.MAX_INCOMING_BYTES / PayloadStreamsImpl.MAX_STREAM_LENGTH);
+
+		for (int i = 0; i < streams; i++) {
+			assertNotNull(state.startIncoming(i, CHANNEL, RECEIVER, PayloadStreamsImpl.MAX_STREAM_LENGTH));
+		}
+
+		// Declared lengths are reserved up front, before any fragment is buffered
+		assertNull(state.startIncoming(streams, CHANNEL, RECEIVER, 1));
+
+		state.removeIncoming(0);
+		assertNotNull(state.startIncoming(streams, CHANNEL, RECEIVER, PayloadStreamsImpl.MAX_STREAM_LENGTH));
+	}
+
+	@Test
+	void rejectsIncomingStreamsAfterClose() {
+		state.close();
+
+		assertNull(state.startIncoming(0, CHANNEL, RECEIVER, 1));
+	}
+
+	private static void assertCancelled(PayloadStreams.OutgoingStream stream) {
+		assertTrue(stream.completion().isCompletedExceptionally());
+		ExecutionException e = assertThrows(ExecutionException.class, () -> stream.completion().get());
+		assertInstanceOf(CancellationException.class, e.getCause());
+	}
+
+	/**
+	 * Records the sent payloads, and completes their writes on demand, like a remote connection once the packets have been encoded.
+	 */
+	private static class RecordingSender implements PacketSender {
+		private final List<CustomPacketPayload> payloads = new ArrayList<>();
+		private final List<PacketSendListener> listeners = new ArrayList<>();
+
+		List<StreamFragmentPayload> fragments() {
+			return payloads.stream().filter(StreamFragmentPayload.class::isInstance).map(StreamFragmentPayload.class::cast).toList();
+		}
+
+		List<StreamControlPayload> controls() {
+			return payloads.stream().filter(StreamControlPayload.class::isInstance).map(StreamControlPayload.class::cast).toList();
+		}
+
+		void completeWrites() {
+			listeners.forEach(PacketSendListener::onSuccess);
+			listeners.clear();
+		}
+
+		@Override
+		public Packet<?> createPacket(CustomPacketPayload payload) {
+			return new ClientboundCustomPayloadPacket(payload);
+		}
+
+		@Override
+		public void sendPacket(Packet<?> packet, @Nullable PacketSendListener callback) {
+			payloads.add(((ClientboundCustomPayloadPacket) packet).payload());
+
+			if (callback != null) {
+				listeners.add(callback);
+			}
+		}
+
+		@Override
+		public void disconnect(Component disconnectReason) {
+		}
+	}
+}
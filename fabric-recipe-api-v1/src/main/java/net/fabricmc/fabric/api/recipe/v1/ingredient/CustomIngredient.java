@@ -68,7 +68,8 @@ public interface CustomIngredient {
 	 *     This allows mods that inspect the ingredient to figure out which stacks it might accept.</li>
 	 * </ul>
 	 *
-	 * <p>Note: no caching needs to be done by the implementation, this is already handled by the ingredient itself.
+	 * <p>Note: no caching needs to be done by the implementation, this is already handled by the ingredient itself:
+	 * {@link Ingredient#getItems()} only requests the stacks once per ingredient.
 	 */
 	List<ItemStack> getMatchingStacks();
 
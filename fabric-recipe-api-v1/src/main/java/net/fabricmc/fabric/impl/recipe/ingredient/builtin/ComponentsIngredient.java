@@ -19,7 +19,6 @@ package net.fabricmc.fabric.impl.recipe.ingredient.builtin;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 
 import com.mojang.serialization.Codec;
@@ -41,6 +40,9 @@ public class ComponentsIngredient implements CustomIngredient {
 
 	private final Ingredient base;
 	private final DataComponentPatch components;
+	// The patch flattened for testing; a null expected value means that the component must be absent.
+	private final DataComponentType<?>[] componentTypes;
+	private final Object[] expectedValues;
 
 	public ComponentsIngredient(Ingredient base, DataComponentPatch components) {
 		if (components.isEmpty()) {
@@ -49,6 +51,16 @@ public class ComponentsIngredient implements CustomIngredient {
 
 		this.base = base;
 		this.components = components;
+		this.componentTypes = new DataComponentType<?>[components.size()];
+		this.expectedValues = new Object[components.size()];
+
+		int i = 0;
+
+		for (Map.Entry<DataComponentType<?>, Optional<?>> entry : components.entrySet()) {
+			componentTypes[i] = entry.getKey();
+			expectedValues[i] = entry.getValue().orElse(null);
+			i++;
+		}
 	}
 
 	@Override
@@ -56,22 +68,18 @@ public class ComponentsIngredient implements CustomIngredient {
 		if (!base.test(stack)) return false;
 
 		// None strict matching
-		for (Map.Entry<DataComponentType<?>, Optional<?>> entry : components.entrySet()) {
-			final DataComponentType<?> type = entry.getKey();
-			final Optional<?> value = entry.getValue();
+		for (int i = 0; i < componentTypes.length; i++) {
+			final Object expected = expectedValues[i];
+			final Object actual = stack.get(componentTypes[i]);
 
-			if (value.isPresent()) {
+			if (expected != null) {
 				// Expect the stack to contain a matching component
-				if (!stack.has(type)) {
-					return false;
-				}
-
-				if (!Objects.equals(value.get(), stack.get(type))) {
+				if (!expected.equals(actual)) {
 					return false;
 				}
 			} else {
 				// Expect the target stack to not contain this component
-				if (stack.has(type)) {
+				if (actual != null) {
 					return false;
 				}
 			}
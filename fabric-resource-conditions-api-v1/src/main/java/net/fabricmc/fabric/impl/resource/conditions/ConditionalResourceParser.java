@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.resource.conditions;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import net.neoforged.neoforge.common.conditions.ConditionalOps;
+import org.jetbrains.annotations.Nullable;
+import net.fabricmc.fabric.api.resource.conditions.v1.ResourceCondition;
+import net.fabricmc.fabric.api.resource.conditions.v1.ResourceConditions;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.resources.IoSupplier;
+import net.minecraft.util.GsonHelper;
+
+/**
+ * Parses JSON resources while they are scanned by a data loader, and stops parsing those whose resource conditions fail.
+ *
+ * <p>The members of a resource are read one by one. Once its {@value ResourceConditions#CONDITIONS_KEY} member is read, the conditions are tested
+ * if {@linkplain ResourceConditionsImpl#canTestDuringPreparation possible}, and the remaining members of a rejected resource are skipped without
+ * being parsed. Data generation writes the conditions as the first member, so rejected resources are barely parsed at all.
+ * Resources whose conditions cannot be tested yet, or fail to parse, are parsed fully and left to the usual condition handling.
+ */
+public final class ConditionalResourceParser {
+	private static final ThreadLocal<Context> CONTEXT = new ThreadLocal<>();
+
+	private ConditionalResourceParser() {
+	}
+
+	/**
+	 * Sets the data loader scanning resources on the current thread, until {@link #exit()} is called.
+	 */
+	public static void enter(String dataType, @Nullable HolderLookup.Provider registryLookup) {
+		CONTEXT.set(new Context(dataType, registryLookup));
+	}
+
+	public static void exit() {
+		CONTEXT.remove();
+	}
+
+	/**
+	 * Parses a resource like {@link GsonHelper#fromJson(Gson, Reader, Class)} does, unless it is rejected by its resource conditions.
+	 *
+	 * @param reopen supplies a new reader of the resource, used in the rare case that a rejected resource turns out to also have NeoForge conditions,
+	 *               which take precedence
+	 * @return the parsed resource, or {@code null} if it was rejected
+	 */
+	@Nullable
+	public static JsonElement parse(Gson gson, Reader reader, ResourceLocation id, IoSupplier<Reader> reopen) throws IOException {
+		Context context = CONTEXT.get();
+		TypeAdapter<JsonElement> adapter = gson.getAdapter(JsonElement.class);
+		JsonReader json = new JsonReader(reader);
+		json.setLenient(false);
+
+		if (context == null || json.peek() != JsonToken.BEGIN_OBJECT) {
+			return requireNonNull(adapter.read(json));
+		}
+
+		JsonObject obj = new JsonObject();
+		json.beginObject();
+
+		while (json.hasNext()) {
+			String name = json.nextName();
+			JsonElement value = adapter.read(json);
+			obj.add(name, value);
+
+			if (name.equals(ResourceConditions.CONDITIONS_KEY) && !obj.has(ConditionalOps.DEFAULT_CONDITIONS_KEY) && isRejected(value, id, context)) {
+				while (json.hasNext()) {
+					if (json.nextName().equals(ConditionalOps.DEFAULT_CONDITIONS_KEY)) {
+						try (Reader reopened = reopen.get()) {
+							return GsonHelper.fromJson(gson, reopened, JsonElement.class);
+						}
+					}
+
+					json.skipValue();
+				}
+
+				json.endObject();
+				return null;
+			}
+		}
+
+		json.endObject();
+		return obj;
+	}
+
+	private static boolean isRejected(JsonElement conditionsJson, ResourceLocation id, Context context) {
+		// Parsing failures are reported by the usual condition handling, which will see the same conditions
+		ResourceCondition conditions = ResourceConditionsImpl.parseConditions(conditionsJson).result().orElse(null);
+
+		if (conditions == null || !ResourceConditionsImpl.canTestDuringPreparation(conditions) || conditions.test(context.registryLookup())) {
+			return false;
+		}
+
+		if (ResourceConditionsImpl.LOGGER.isDebugEnabled()) {
+			ResourceConditionsImpl.LOGGER.debug("Rejected resource of type {} with id {}", context.dataType(), id);
+		}
+
+		return true;
+	}
+
+	private static JsonElement requireNonNull(@Nullable JsonElement element) {
+		if (element == null) {
+			throw new JsonParseException("JSON data was null or empty");
+		}
+
+		return element;
+	}
+
+	private record Context(String dataType, @Nullable HolderLookup.Provider registryLookup) {
+	}
+}
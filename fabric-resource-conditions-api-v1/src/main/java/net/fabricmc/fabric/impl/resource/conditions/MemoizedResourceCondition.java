@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.resource.conditions;
+
+import org.jetbrains.annotations.Nullable;
+import net.fabricmc.fabric.api.resource.conditions.v1.ResourceCondition;
+import net.fabricmc.fabric.api.resource.conditions.v1.ResourceConditionType;
+import net.minecraft.core.HolderLookup;
+
+/**
+ * A parsed condition shared by all resources with the same conditions JSON during a reload, which remembers its last result.
+ *
+ * <p>Conditions that only depend on the loaded mods and the enabled features are folded to a constant after their first test.
+ * Conditions that also check registries remember their result for the last registry lookup they were tested with.
+ * Other conditions, which may depend on tags or on state unknown to us, are tested every time.
+ */
+public final class MemoizedResourceCondition implements ResourceCondition {
+	private final ResourceCondition condition;
+	private final ResourceConditionsImpl.Dependency dependency;
+	@Nullable
+	private volatile Result lastResult;
+
+	public MemoizedResourceCondition(ResourceCondition condition) {
+		this.condition = condition;
+		this.dependency = ResourceConditionsImpl.getDependency(condition);
+	}
+
+	public ResourceCondition getCondition() {
+		return condition;
+	}
+
+	public ResourceConditionsImpl.Dependency getDependency() {
+		return dependency;
+	}
+
+	@Override
+	public ResourceConditionType<?> getType() {
+		return condition.getType();
+	}
+
+	@Override
+	public boolean test(@Nullable HolderLookup.Provider registryLookup) {
+		if (dependency == ResourceConditionsImpl.Dependency.OTHER) {
+			return condition.test(registryLookup);
+		}
+
+		// Constant conditions are cached regardless of the lookup
+		HolderLookup.Provider key = dependency == ResourceConditionsImpl.Dependency.REGISTRIES ? registryLookup : null;
+		Result result = lastResult;
+
+		if (result == null || result.registryLookup() != key) {
+			result = new Result(key, condition.test(registryLookup));
+			lastResult = result;
+		}
+
+		return result.matched();
+	}
+
+	@Override
+	public String toString() {
+		return condition.toString();
+	}
+
+	private record Result(@Nullable HolderLookup.Provider registryLookup, boolean matched) {
+	}
+}
@@ -22,7 +22,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.mojang.serialization.DataResult;
 import com.mojang.serialization.JsonOps;
@@ -33,7 +35,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import net.fabricmc.api.ModInitializer;
 import net.fabricmc.fabric.api.resource.conditions.v1.ResourceCondition;
+import net.fabricmc.fabric.api.resource.conditions.v1.ResourceConditionType;
 import net.fabricmc.fabric.api.resource.conditions.v1.ResourceConditions;
+import net.fabricmc.fabric.impl.resource.conditions.conditions.AndResourceCondition;
+import net.fabricmc.fabric.impl.resource.conditions.conditions.NotResourceCondition;
+import net.fabricmc.fabric.impl.resource.conditions.conditions.OrResourceCondition;
 import net.fabricmc.loader.api.FabricLoader;
 import net.minecraft.core.HolderLookup;
 import net.minecraft.core.Registry;
@@ -46,6 +52,7 @@ import net.minecraft.world.flag.FeatureFlags;
 public final class ResourceConditionsImpl implements ModInitializer {
 	public static final Logger LOGGER = LoggerFactory.getLogger("Fabric Resource Conditions");
 	public static FeatureFlagSet currentFeatures = null;
+	private static final Map<String, DataResult<ResourceCondition>> PARSED_CONDITIONS = new ConcurrentHashMap<>();
 
 	@Override
 	public void onInitialize() {
@@ -61,26 +68,124 @@ public final class ResourceConditionsImpl implements ModInitializer {
 	}
 
 	public static boolean applyResourceConditions(JsonObject obj, String dataType, ResourceLocation key, @Nullable HolderLookup.Provider registryLookup) {
-		boolean debugLogEnabled = ResourceConditionsImpl.LOGGER.isDebugEnabled();
+		ResourceCondition conditions = parseResourceConditions(obj, dataType, key);
+		return conditions == null || testResourceConditions(conditions, dataType, key, registryLookup);
+	}
 
+	/**
+	 * Parses the Fabric resource conditions of a resource.
+	 *
+	 * @return the conditions, or {@code null} if the resource has none, uses NeoForge conditions, or its conditions failed to parse
+	 */
+	@Nullable
+	public static ResourceCondition parseResourceConditions(JsonObject obj, String dataType, ResourceLocation key) {
 		if (obj.has(ResourceConditions.CONDITIONS_KEY) && !obj.has(ConditionalOps.DEFAULT_CONDITIONS_KEY)) {
-			DataResult<ResourceCondition> conditions = ResourceCondition.CONDITION_CODEC.parse(JsonOps.INSTANCE, obj.get(ResourceConditions.CONDITIONS_KEY));
+			DataResult<ResourceCondition> conditions = parseConditions(obj.get(ResourceConditions.CONDITIONS_KEY));
 
 			if (conditions.isSuccess()) {
-				boolean matched = conditions.getOrThrow().test(registryLookup);
-
-				if (debugLogEnabled) {
-					String verdict = matched ? "Allowed" : "Rejected";
-					ResourceConditionsImpl.LOGGER.debug("{} resource of type {} with id {}", verdict, dataType, key);
-				}
-
-				return matched;
+				return conditions.getOrThrow();
 			} else {
 				ResourceConditionsImpl.LOGGER.error("Failed to parse resource conditions for file of type {} with id {}, skipping: {}", dataType, key, conditions.error().get().message());
 			}
 		}
 
-		return true;
+		return null;
+	}
+
+	/**
+	 * Parses conditions JSON, reusing the {@linkplain MemoizedResourceCondition memoized condition} of JSON with the same serialized form
+	 * parsed during the current reload. Many resources share the exact same conditions, such as the mods they are meant for.
+	 *
+	 * <p>The serialized form is not canonical: the same conditions written with their members in a different order are parsed and
+	 * memoized separately.
+	 */
+	public static DataResult<ResourceCondition> parseConditions(JsonElement conditionsJson) {
+		return PARSED_CONDITIONS.computeIfAbsent(conditionsJson.toString(), json -> ResourceCondition.CONDITION_CODEC.parse(JsonOps.INSTANCE, conditionsJson).map(MemoizedResourceCondition::new));
+	}
+
+	/**
+	 * Forgets the parsed conditions along with their results, which may depend on the enabled features and registries.
+	 * Called when a reload starts and when it finishes, so that the cache does not keep the registries of a reload reachable afterwards.
+	 */
+	public static void clearConditionCache() {
+		PARSED_CONDITIONS.clear();
+	}
+
+	public static boolean testResourceConditions(ResourceCondition conditions, String dataType, ResourceLocation key, @Nullable HolderLookup.Provider registryLookup) {
+		boolean matched = conditions.test(registryLookup);
+
+		if (ResourceConditionsImpl.LOGGER.isDebugEnabled()) {
+			String verdict = matched ? "Allowed" : "Rejected";
+			ResourceConditionsImpl.LOGGER.debug("{} resource of type {} with id {}", verdict, dataType, key);
+		}
+
+		return matched;
+	}
+
+	/**
+	 * Whether a condition may be tested while preparing a reload, off the thread applying it.
+	 * This is not the case for conditions depending on the tags, which are only captured at the end of the apply phase of the tag loader,
+	 * nor for custom conditions. They are tested in the apply phase, as they always were.
+	 */
+	public static boolean canTestDuringPreparation(ResourceCondition condition) {
+		return getDependency(condition) != Dependency.OTHER;
+	}
+
+	public static Dependency getDependency(ResourceCondition condition) {
+		if (condition instanceof MemoizedResourceCondition memoized) {
+			return memoized.getDependency();
+		}
+
+		ResourceConditionType<?> type = condition.getType();
+
+		if (type == DefaultResourceConditionTypes.TRUE
+				|| type == DefaultResourceConditionTypes.ALL_MODS_LOADED
+				|| type == DefaultResourceConditionTypes.ANY_MODS_LOADED
+				|| type == DefaultResourceConditionTypes.FEATURES_ENABLED) {
+			return Dependency.NONE;
+		} else if (type == DefaultResourceConditionTypes.REGISTRY_CONTAINS) {
+			return Dependency.REGISTRIES;
+		} else if (condition instanceof NotResourceCondition not) {
+			return getDependency(not.condition());
+		} else if (condition instanceof AndResourceCondition and) {
+			return getDependency(and.conditions());
+		} else if (condition instanceof OrResourceCondition or) {
+			return getDependency(or.conditions());
+		}
+
+		return Dependency.OTHER;
+	}
+
+	private static Dependency getDependency(List<ResourceCondition> conditions) {
+		Dependency dependency = Dependency.NONE;
+
+		for (ResourceCondition condition : conditions) {
+			Dependency conditionDependency = getDependency(condition);
+
+			if (conditionDependency.compareTo(dependency) > 0) {
+				dependency = conditionDependency;
+			}
+		}
+
+		return dependency;
+	}
+
+	/**
+	 * What the result of a condition depends on during a reload, from the least to the most.
+	 */
+	public enum Dependency {
+		/**
+		 * Nothing that changes during a reload: the loaded mods and the enabled features.
+		 */
+		NONE,
+		/**
+		 * The registry lookup passed to the condition.
+		 */
+		REGISTRIES,
+		/**
+		 * The tags, or anything else.
+		 */
+		OTHER
 	}
 
 	// Condition implementations
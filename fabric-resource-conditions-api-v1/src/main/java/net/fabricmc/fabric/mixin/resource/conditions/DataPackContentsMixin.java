@@ -19,6 +19,7 @@ package net.fabricmc.fabric.mixin.resource.conditions;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 
+import com.llamalad7.mixinextras.injector.ModifyReturnValue;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
@@ -48,5 +49,12 @@ public class DataPackContentsMixin {
 	)
 	private static void hookReload(ResourceManager manager, LayeredRegistryAccess<RegistryLayer> combinedDynamicRegistries, FeatureFlagSet enabledFeatures, Commands.CommandSelection environment, int functionPermissionLevel, Executor prepareExecutor, Executor applyExecutor, CallbackInfoReturnable<CompletableFuture<ReloadableServerResources>> cir) {
 		ResourceConditionsImpl.currentFeatures = enabledFeatures;
+		ResourceConditionsImpl.clearConditionCache();
+	}
+
+	@ModifyReturnValue(method = "loadResources", at = @At("RETURN"))
+	private static CompletableFuture<ReloadableServerResources> clearConditionCacheAfterReload(CompletableFuture<ReloadableServerResources> future) {
+		// The memoized conditions hold on to the registry lookups they were tested with
+		return future.whenComplete((resources, throwable) -> ResourceConditionsImpl.clearConditionCache());
 	}
 }
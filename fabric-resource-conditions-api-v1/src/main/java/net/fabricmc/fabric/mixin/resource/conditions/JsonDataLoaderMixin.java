@@ -16,24 +16,45 @@
 
 package net.fabricmc.fabric.mixin.resource.conditions;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 
+import com.google.gson.Gson;
 import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
+import com.llamalad7.mixinextras.injector.wrapoperation.Operation;
+import com.llamalad7.mixinextras.injector.wrapoperation.WrapOperation;
+import com.llamalad7.mixinextras.sugar.Local;
 import org.jetbrains.annotations.Nullable;
 import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+import net.fabricmc.fabric.api.resource.conditions.v1.ResourceCondition;
+import net.fabricmc.fabric.impl.resource.conditions.ConditionalResourceParser;
 import net.fabricmc.fabric.impl.resource.conditions.ResourceConditionsImpl;
 import net.minecraft.core.HolderLookup;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.resources.Resource;
 import net.minecraft.server.packs.resources.ResourceManager;
 import net.minecraft.server.packs.resources.SimpleJsonResourceReloadListener;
 import net.minecraft.util.profiling.ProfilerFiller;
 
 /**
- * Using {@link SinglePreparationResourceReloaderMixin}, apply resource conditions at the very beginning of the "apply" phase.
+ * Apply resource conditions at the end of the "prepare" phase, which runs in parallel for all loaders.
+ * Conditions that can only be tested on the thread applying the reload, such as the ones checking tags, are deferred to the very beginning of the
+ * "apply" phase, using {@link SinglePreparationResourceReloaderMixin}.
+ *
+ * <p>While the directory is scanned, resources are parsed with {@link ConditionalResourceParser}, which stops parsing the resources rejected
+ * by conditions that can already be tested.
+ *
+ * <p>Loaders that override {@code prepare} without calling super skip the hook at the end of it, so their resources are checked against all
+ * conditions at the beginning of the "apply" phase instead.
  */
 @Mixin(SimpleJsonResourceReloadListener.class)
 public class JsonDataLoaderMixin extends SinglePreparationResourceReloaderMixin {
@@ -41,26 +62,112 @@ public class JsonDataLoaderMixin extends SinglePreparationResourceReloaderMixin
 	@Final
 	private String directory;
 
+	/**
+	 * The conditions deferred to the "apply" phase by the last "prepare" phase.
+	 */
+	@Unique
+	private Map<ResourceLocation, ResourceCondition> fabric_deferredConditions = Map.of();
+
+	/**
+	 * The resources returned by the last "prepare" phase, to tell whether the resources reaching the "apply" phase went through it.
+	 */
+	@Unique
+	@Nullable
+	private Map<ResourceLocation, JsonElement> fabric_preparedResources;
+
+	@WrapOperation(method = "prepare(Lnet/minecraft/server/packs/resources/ResourceManager;Lnet/minecraft/util/profiling/ProfilerFiller;)Ljava/util/Map;", at = @At(value = "INVOKE", target = "Lnet/minecraft/server/packs/resources/SimpleJsonResourceReloadListener;scanDirectory(Lnet/minecraft/server/packs/resources/ResourceManager;Ljava/lang/String;Lcom/google/gson/Gson;Ljava/util/Map;)V"))
+	private void scanWithResourceConditions(ResourceManager resourceManager, String directory, Gson gson, Map<ResourceLocation, JsonElement> output, Operation<Void> original) {
+		ConditionalResourceParser.enter(directory, fabric_getRegistryLookup());
+
+		try {
+			original.call(resourceManager, directory, gson, output);
+		} finally {
+			ConditionalResourceParser.exit();
+		}
+	}
+
+	@WrapOperation(method = "scanDirectory", at = @At(value = "INVOKE", target = "Lnet/minecraft/util/GsonHelper;fromJson(Lcom/google/gson/Gson;Ljava/io/Reader;Ljava/lang/Class;)Ljava/lang/Object;"))
+	private static Object parseWithResourceConditions(Gson gson, Reader reader, Class<?> type, Operation<Object> original, @Local Map.Entry<ResourceLocation, Resource> entry, @Local(ordinal = 1) ResourceLocation id) throws IOException {
+		if (type != JsonElement.class) {
+			return original.call(gson, reader, type);
+		}
+
+		return ConditionalResourceParser.parse(gson, reader, id, entry.getValue()::openAsReader);
+	}
+
+	@WrapOperation(method = "scanDirectory", at = @At(value = "INVOKE", target = "Ljava/util/Map;put(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;"))
+	private static Object skipRejectedResource(Map<Object, Object> output, Object id, Object json, Operation<Object> original) {
+		// Resources rejected while parsing are not added at all
+		return json == null ? null : original.call(output, id, json);
+	}
+
+	@Inject(method = "prepare(Lnet/minecraft/server/packs/resources/ResourceManager;Lnet/minecraft/util/profiling/ProfilerFiller;)Ljava/util/Map;", at = @At("RETURN"))
+	private void applyResourceConditions(ResourceManager resourceManager, ProfilerFiller profiler, CallbackInfoReturnable<Map<ResourceLocation, JsonElement>> cir) {
+		profiler.push("Fabric resource conditions: %s".formatted(directory));
+		fabric_deferredConditions = fabric_testResourceConditions(cir.getReturnValue(), true, fabric_getRegistryLookup());
+		fabric_preparedResources = cir.getReturnValue();
+		profiler.pop();
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	protected void fabric_applyResourceConditions(ResourceManager resourceManager, ProfilerFiller profiler, Object object, @Nullable HolderLookup.Provider registryLookup) {
+		Map<ResourceLocation, JsonElement> map = (Map<ResourceLocation, JsonElement>) object;
+		Map<ResourceLocation, ResourceCondition> deferredConditions = fabric_deferredConditions;
+		boolean prepared = fabric_preparedResources == map;
+		fabric_deferredConditions = Map.of();
+		fabric_preparedResources = null;
+
+		if (prepared && deferredConditions.isEmpty()) {
+			return;
+		}
+
 		profiler.push("Fabric resource conditions: %s".formatted(directory));
 
-		Iterator<Map.Entry<ResourceLocation, JsonElement>> it = ((Map<ResourceLocation, JsonElement>) object).entrySet().iterator();
+		if (prepared) {
+			for (Map.Entry<ResourceLocation, ResourceCondition> entry : deferredConditions.entrySet()) {
+				if (!ResourceConditionsImpl.testResourceConditions(entry.getValue(), directory, entry.getKey(), registryLookup)) {
+					map.remove(entry.getKey());
+				}
+			}
+		} else {
+			// The loader overrides prepare without calling super, or replaced its result, so the prepare hook never saw these resources
+			fabric_testResourceConditions(map, false, registryLookup);
+		}
+
+		profiler.pop();
+	}
+
+	/**
+	 * Removes the resources rejected by their conditions.
+	 *
+	 * @param prepare whether this runs in the "prepare" phase, in which case the conditions that cannot be tested yet are returned instead
+	 * @return the deferred conditions
+	 */
+	@Unique
+	private Map<ResourceLocation, ResourceCondition> fabric_testResourceConditions(Map<ResourceLocation, JsonElement> map, boolean prepare, @Nullable HolderLookup.Provider registryLookup) {
+		Map<ResourceLocation, ResourceCondition> deferredConditions = new HashMap<>();
+		Iterator<Map.Entry<ResourceLocation, JsonElement>> it = map.entrySet().iterator();
 
 		while (it.hasNext()) {
 			Map.Entry<ResourceLocation, JsonElement> entry = it.next();
 			JsonElement resourceData = entry.getValue();
 
 			if (resourceData.isJsonObject()) {
-				JsonObject obj = resourceData.getAsJsonObject();
+				ResourceCondition conditions = ResourceConditionsImpl.parseResourceConditions(resourceData.getAsJsonObject(), directory, entry.getKey());
 
-				if (!ResourceConditionsImpl.applyResourceConditions(obj, directory, entry.getKey(), fabric_getRegistryLookup())) {
+				if (conditions == null) {
+					continue;
+				}
+
+				if (prepare && !ResourceConditionsImpl.canTestDuringPreparation(conditions)) {
+					deferredConditions.put(entry.getKey(), conditions);
+				} else if (!ResourceConditionsImpl.testResourceConditions(conditions, directory, entry.getKey(), registryLookup)) {
 					it.remove();
 				}
 			}
 		}
 
-		profiler.pop();
+		return deferredConditions;
 	}
 }
@@ -51,10 +51,12 @@ public class RegistryLoaderMixin {
 	@WrapOperation(method = "load(Lnet/minecraft/server/packs/resources/ResourceManager;Lnet/minecraft/core/RegistryAccess;Ljava/util/List;)Lnet/minecraft/core/RegistryAccess$Frozen;", at = @At(value = "INVOKE", target = "Lnet/minecraft/resources/RegistryDataLoader;load(Lnet/minecraft/resources/RegistryDataLoader$LoadingFunction;Lnet/minecraft/core/RegistryAccess;Ljava/util/List;)Lnet/minecraft/core/RegistryAccess$Frozen;"))
 	private static RegistryAccess.Frozen captureRegistries(@Coerce Object registryLoadable, RegistryAccess baseRegistryManager, List<RegistryDataLoader.RegistryData<?>> entries, Operation<RegistryAccess.Frozen> original) {
 		try {
+			ResourceConditionsImpl.clearConditionCache();
 			REGISTRIES.set(baseRegistryManager);
 			return original.call(registryLoadable, baseRegistryManager, entries);
 		} finally {
 			REGISTRIES.remove();
+			ResourceConditionsImpl.clearConditionCache();
 		}
 	}
 
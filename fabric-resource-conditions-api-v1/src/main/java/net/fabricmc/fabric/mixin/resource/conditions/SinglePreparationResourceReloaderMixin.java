@@ -28,7 +28,7 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
 /**
  * This mixin allows us to inject arbitrary logic at the beginning of the "apply" phase.
- * Used by the subclass {@link JsonDataLoaderMixin}.
+ * Used by the subclass {@link JsonDataLoaderMixin} for the resource conditions that could not be applied in the "prepare" phase.
  */
 @Mixin(SimplePreparableReloadListener.class)
 public class SinglePreparationResourceReloaderMixin {
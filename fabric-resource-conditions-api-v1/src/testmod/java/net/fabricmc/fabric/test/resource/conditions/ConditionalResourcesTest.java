@@ -67,8 +67,28 @@ public class ConditionalResourcesTest {
 			throw new AssertionError("features_enabled recipe should have been loaded.");
 		}
 
+		if (manager.byKey(id("deferred_tags_populated")).isEmpty()) {
+			throw new AssertionError("deferred_tags_populated recipe should have been loaded.");
+		}
+
+		if (manager.byKey(id("deferred_tags_not_populated")).isPresent()) {
+			throw new AssertionError("deferred_tags_not_populated recipe should not have been loaded.");
+		}
+
+		if (manager.byKey(id("rejected_trailing_members")).isPresent()) {
+			throw new AssertionError("rejected_trailing_members recipe should not have been loaded.");
+		}
+
+		if (manager.byKey(id("fabric_then_neoforge_conditions")).isEmpty()) {
+			throw new AssertionError("fabric_then_neoforge_conditions recipe should have been loaded, NeoForge conditions take precedence.");
+		}
+
+		if (manager.byKey(id("fabric_then_neoforge_conditions_rejected")).isPresent()) {
+			throw new AssertionError("fabric_then_neoforge_conditions_rejected recipe should not have been loaded, NeoForge conditions take precedence.");
+		}
+
 		long loadedRecipes = manager.getRecipes().stream().filter(r -> r.id().getNamespace().equals(MOD_ID)).count();
-		if (loadedRecipes != 5) throw new AssertionError("Unexpected loaded recipe count: " + loadedRecipes);
+		if (loadedRecipes != 7) throw new AssertionError("Unexpected loaded recipe count: " + loadedRecipes);
 
 		context.succeed();
 	}
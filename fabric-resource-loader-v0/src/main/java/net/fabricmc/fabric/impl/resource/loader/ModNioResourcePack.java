@@ -73,6 +73,11 @@ public class ModNioResourcePack implements PackResources, ModResourcePack {
 	 * @see ModResourcePackUtil#appendModResourcePacks(List, PackType, String)
 	 */
 	private final boolean modBundled;
+	/**
+	 * The indexes of {@link #basePaths}, taken from the {@link ModResourceIndexCache} or built on first use;
+	 * {@code null} for paths that are probed on the file system.
+	 */
+	private volatile ModResourceIndex[] indexes;
 
 	public static ModNioResourcePack create(String id, ModContainer mod, String subPath, PackType type, ResourcePackActivationType activationType, boolean modBundled) {
 		List<Path> rootPaths = mod.getRootPaths();
@@ -119,7 +124,8 @@ public class ModNioResourcePack implements PackResources, ModResourcePack {
 		this.type = type;
 		this.activationType = activationType;
 		this.modBundled = modBundled;
-		this.namespaces = readNamespaces(paths, mod.getMetadata().getId());
+		this.indexes = ModResourceIndexCache.isEnabled() ? getCachedIndexes(mod, paths) : null;
+		this.namespaces = this.indexes != null ? readNamespaces(this.indexes, mod.getMetadata().getId()) : readNamespaces(paths, mod.getMetadata().getId());
 		this.metadata = metadata;
 	}
 
@@ -131,6 +137,44 @@ public class ModNioResourcePack implements PackResources, ModResourcePack {
 		).toList(), type, activationType, modBundled, metadata);
 	}
 
+	/**
+	 * @return the cached indexes of all paths, or {@code null} if any of them cannot be cached
+	 */
+	@Nullable
+	private static ModResourceIndex[] getCachedIndexes(ModContainer mod, List<Path> paths) {
+		ModResourceIndex[] indexes = new ModResourceIndex[paths.size()];
+
+		for (int i = 0; i < indexes.length; i++) {
+			indexes[i] = ModResourceIndexCache.get(mod, paths.get(i));
+			if (indexes[i] == null) return null;
+		}
+
+		return indexes;
+	}
+
+	private static Map<PackType, Set<String>> readNamespaces(ModResourceIndex[] indexes, String modId) {
+		Map<PackType, Set<String>> ret = new EnumMap<>(PackType.class);
+
+		for (PackType type : PackType.values()) {
+			Set<String> namespaces = new HashSet<>();
+
+			for (ModResourceIndex index : indexes) {
+				for (String namespace : index.getNamespaces(type)) {
+					if (!RESOURCE_PACK_PATH.matcher(namespace).matches()) {
+						LOGGER.warn("Fabric NioResourcePack: ignored invalid namespace: {} in mod ID {}", namespace, modId);
+						continue;
+					}
+
+					namespaces.add(namespace);
+				}
+			}
+
+			ret.put(type, namespaces.isEmpty() ? Collections.emptySet() : namespaces);
+		}
+
+		return ret;
+	}
+
 	static Map<PackType, Set<String>> readNamespaces(List<Path> paths, String modId) {
 		Map<PackType, Set<String>> ret = new EnumMap<>(PackType.class);
 
@@ -172,12 +216,29 @@ public class ModNioResourcePack implements PackResources, ModResourcePack {
 	}
 
 	private Path getPath(String filename) {
+		return getPath(filename, false);
+	}
+
+	private Path getPath(String filename, boolean requireFile) {
 		if (hasAbsentNs(filename)) return null;
 
-		for (Path basePath : basePaths) {
+		ModResourceIndex[] indexes = getIndexes();
+
+		for (int i = 0; i < basePaths.size(); i++) {
+			Path basePath = basePaths.get(i);
+			ModResourceIndex index = indexes[i];
+
+			if (index != null && index.covers(filename)) {
+				if (index.contains(filename)) {
+					return basePath.resolve(filename.replace("/", basePath.getFileSystem().getSeparator()));
+				}
+
+				continue;
+			}
+
 			Path childPath = basePath.resolve(filename.replace("/", basePath.getFileSystem().getSeparator())).toAbsolutePath().normalize();
 
-			if (childPath.startsWith(basePath) && exists(childPath)) {
+			if (childPath.startsWith(basePath) && exists(childPath) && (!requireFile || Files.isRegularFile(childPath))) {
 				return childPath;
 			}
 		}
@@ -185,6 +246,41 @@ public class ModNioResourcePack implements PackResources, ModResourcePack {
 		return null;
 	}
 
+	private ModResourceIndex[] getIndexes() {
+		ModResourceIndex[] indexes = this.indexes;
+
+		if (indexes == null) {
+			synchronized (this) {
+				indexes = this.indexes;
+
+				if (indexes == null) {
+					indexes = new ModResourceIndex[basePaths.size()];
+
+					for (int i = 0; i < indexes.length; i++) {
+						indexes[i] = buildIndex(basePaths.get(i));
+					}
+
+					this.indexes = indexes;
+				}
+			}
+		}
+
+		return indexes;
+	}
+
+	@Nullable
+	private ModResourceIndex buildIndex(Path basePath) {
+		// Directories are probed on every lookup instead, so that resources changed during development are picked up on reload
+		if (basePath.getFileSystem() == DEFAULT_FS || !Files.isDirectory(basePath)) return null;
+
+		try {
+			return ModResourceIndex.build(basePath);
+		} catch (IOException e) {
+			LOGGER.warn("Failed to index resources at " + basePath + " in mod " + mod.getMetadata().getId(), e);
+			return null;
+		}
+	}
+
 	private static final String resPrefix = PackType.CLIENT_RESOURCES.getDirectory() + "/";
 	private static final String dataPrefix = PackType.SERVER_DATA.getDirectory() + "/";
 
@@ -209,9 +305,9 @@ public class ModNioResourcePack implements PackResources, ModResourcePack {
 	}
 
 	private IoSupplier<InputStream> openFile(String filename) {
-		Path path = getPath(filename);
+		Path path = getPath(filename, true);
 
-		if (path != null && Files.isRegularFile(path)) {
+		if (path != null) {
 			return () -> Files.newInputStream(path);
 		}
 
@@ -243,9 +339,23 @@ public class ModNioResourcePack implements PackResources, ModResourcePack {
 			return;
 		}
 
-		for (Path basePath : basePaths) {
+		ModResourceIndex[] indexes = getIndexes();
+
+		for (int i = 0; i < basePaths.size(); i++) {
+			Path basePath = basePaths.get(i);
 			String separator = basePath.getFileSystem().getSeparator();
 			Path nsPath = basePath.resolve(type.getDirectory()).resolve(namespace);
+			ModResourceIndex index = indexes[i];
+			String nsPrefix = type.getDirectory() + "/" + namespace + "/";
+
+			if (index != null && index.covers(nsPrefix + path)) {
+				index.forEachFile(nsPrefix + path, file -> {
+					String filename = file.substring(nsPrefix.length());
+					acceptResource(namespace, filename, nsPath.resolve(filename.replace("/", separator)), visitor);
+				});
+				continue;
+			}
+
 			Path searchPath = nsPath.resolve(path.replace("/", separator)).normalize();
 			if (!exists(searchPath)) continue;
 
@@ -254,14 +364,7 @@ public class ModNioResourcePack implements PackResources, ModResourcePack {
 					@Override
 					public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
 						String filename = nsPath.relativize(file).toString().replace(separator, "/");
-						ResourceLocation identifier = ResourceLocation.tryBuild(namespace, filename);
-
-						if (identifier == null) {
-							LOGGER.error("Invalid path in mod resource-pack {}: {}:{}, ignoring", id, namespace, filename);
-						} else {
-							visitor.accept(identifier, IoSupplier.create(file));
-						}
-
+						acceptResource(namespace, filename, file, visitor);
 						return FileVisitResult.CONTINUE;
 					}
 				});
@@ -271,6 +374,16 @@ public class ModNioResourcePack implements PackResources, ModResourcePack {
 		}
 	}
 
+	private void acceptResource(String namespace, String filename, Path file, ResourceOutput visitor) {
+		ResourceLocation identifier = ResourceLocation.tryBuild(namespace, filename);
+
+		if (identifier == null) {
+			LOGGER.error("Invalid path in mod resource-pack {}: {}:{}, ignoring", id, namespace, filename);
+		} else {
+			visitor.accept(identifier, IoSupplier.create(file));
+		}
+	}
+
 	@Override
 	public Set<String> getNamespaces(PackType type) {
 		return namespaces.getOrDefault(type, Collections.emptySet());
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.fabricmc.fabric.impl.resource.loader;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import net.minecraft.server.packs.PackType;
+
+/**
+ * A sorted listing of the resource files below a root path of a mod resource pack, so that lookups and listings do not have to query
+ * the file system, which is slow for the zip file systems of mod jars.
+ *
+ * <p>Only the files directly in the root and below the {@linkplain PackType#getDirectory() pack type directories} are indexed;
+ * paths are relative to the root and separated by {@code /}. As the files are sorted, all files below a directory form a contiguous range.
+ */
+public final class ModResourceIndex {
+	private final String[] files;
+
+	public ModResourceIndex(String[] files) {
+		this.files = files.clone();
+		Arrays.sort(this.files);
+	}
+
+	public static ModResourceIndex build(Path root) throws IOException {
+		List<String> files = new ArrayList<>();
+		String separator = root.getFileSystem().getSeparator();
+
+		try (DirectoryStream<Path> ds = Files.newDirectoryStream(root, Files::isRegularFile)) {
+			for (Path file : ds) {
+				files.add(root.relativize(file).toString().replace(separator, "/"));
+			}
+		}
+
+		for (PackType type : PackType.values()) {
+			Path dir = root.resolve(type.getDirectory());
+			if (!Files.isDirectory(dir)) continue;
+
+			Files.walkFileTree(dir, new SimpleFileVisitor<>() {
+				@Override
+				public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+					if (attrs.isRegularFile()) {
+						files.add(root.relativize(file).toString().replace(separator, "/"));
+					}
+
+					return FileVisitResult.CONTINUE;
+				}
+			});
+		}
+
+		return new ModResourceIndex(files.toArray(String[]::new));
+	}
+
+	/**
+	 * @return whether the index knows if the file exists; files outside the indexed directories, and paths that are not normalized, are not covered
+	 */
+	public boolean covers(String filename) {
+		if (filename.isEmpty() || filename.startsWith("/") || filename.contains("//") || filename.contains("..") || filename.contains("./")) {
+			return false;
+		}
+
+		int slash = filename.indexOf('/');
+		if (slash < 0) return true;
+
+		String topDirectory = filename.substring(0, slash);
+
+		for (PackType type : PackType.values()) {
+			if (type.getDirectory().equals(topDirectory)) return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * @return the namespaces with at least one file in the directory of the pack type
+	 */
+	public Set<String> getNamespaces(PackType type) {
+		Set<String> namespaces = new HashSet<>();
+		String prefix = type.getDirectory() + "/";
+
+		forEachFile(prefix, file -> {
+			int end = file.indexOf('/', prefix.length());
+			if (end > prefix.length()) namespaces.add(file.substring(prefix.length(), end));
+		});
+
+		return namespaces;
+	}
+
+	public boolean contains(String filename) {
+		return Arrays.binarySearch(files, filename) >= 0;
+	}
+
+	public String[] getFiles() {
+		return files.clone();
+	}
+
+	/**
+	 * Visits the files below a directory, or the file itself if the path denotes a file.
+	 */
+	public void forEachFile(String path, Consumer<String> action) {
+		if (!path.endsWith("/") && contains(path)) {
+			action.accept(path);
+			return;
+		}
+
+		String prefix = path.isEmpty() || path.endsWith("/") ? path : path + "/";
+		int start = Arrays.binarySearch(files, prefix);
+		if (start < 0) start = -start - 1;
+
+		for (int i = start; i < files.length && files[i].startsWith(prefix); i++) {
+			action.accept(files[i]);
+		}
+	}
+}
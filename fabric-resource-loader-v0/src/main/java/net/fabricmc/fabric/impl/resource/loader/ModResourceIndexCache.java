@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.fabricmc.fabric.impl.resource.loader;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import net.fabricmc.loader.api.FabricLoader;
+import net.fabricmc.loader.api.ModContainer;
+import net.fabricmc.loader.api.metadata.ModOrigin;
+
+/**
+ * Keeps the {@linkplain ModResourceIndex resource indexes} of mod jars in a file in the game directory, so that warm starts do not have
+ * to scan the jars again. Enabled with the {@code fabric-api.resource-loader.index-cache} system property.
+ *
+ * <p>Entries are keyed by the jar path and the root path inside the jar, and are only used if the size and modification time of
+ * the jar still match; otherwise the root is scanned again and the entry replaced. Only entries used during the session are written back,
+ * which drops entries of removed or updated jars.
+ *
+ * <p>Only roots inside the zip file system of the jar itself are cached, as the size and modification time of the jar say nothing
+ * about the contents of any other file system, such as a directory the mod is loaded from.
+ */
+public final class ModResourceIndexCache {
+	private static final Logger LOGGER = LoggerFactory.getLogger(ModResourceIndexCache.class);
+	private static final boolean ENABLED = Boolean.getBoolean("fabric-api.resource-loader.index-cache");
+	private static final int FORMAT_VERSION = 1;
+
+	@Nullable
+	private static ModResourceIndexCache instance;
+
+	private final Path file;
+	private final Map<String, Entry> entries = new HashMap<>();
+	private final Set<String> usedKeys = new HashSet<>();
+	private boolean loaded = false;
+	private boolean dirty = false;
+
+	public ModResourceIndexCache(Path file) {
+		this.file = file;
+	}
+
+	public static boolean isEnabled() {
+		return ENABLED;
+	}
+
+	/**
+	 * @return the index of a root path of the mod, or {@code null} if the root cannot be cached
+	 */
+	@Nullable
+	public static synchronized ModResourceIndex get(ModContainer mod, Path root) {
+		Path archive = getArchive(mod);
+		if (archive == null) return null;
+
+		if (instance == null) {
+			instance = new ModResourceIndexCache(FabricLoader.getInstance().getGameDir().resolve(".fabric").resolve("resource-index-cache.bin"));
+		}
+
+		return instance.get(archive, root);
+	}
+
+	/**
+	 * Writes the cache file if entries were added or replaced since it was read.
+	 */
+	public static synchronized void save() {
+		if (ENABLED && instance != null) {
+			instance.write();
+		}
+	}
+
+	/**
+	 * @param archive the jar the root belongs to
+	 * @return the index of the root, or {@code null} if it is not a directory inside the zip file system of the jar
+	 */
+	@Nullable
+	public synchronized ModResourceIndex get(Path archive, Path root) {
+		if (!isArchiveRoot(archive, root) || !Files.isDirectory(root)) return null;
+
+		BasicFileAttributes attributes;
+
+		try {
+			attributes = Files.readAttributes(archive, BasicFileAttributes.class);
+		} catch (IOException e) {
+			return null;
+		}
+
+		load();
+
+		String key = archive.toAbsolutePath().normalize() + "!" + root;
+		long lastModified = attributes.lastModifiedTime().toMillis();
+		Entry entry = entries.get(key);
+		usedKeys.add(key);
+
+		if (entry != null && entry.size() == attributes.size() && entry.lastModified() == lastModified) {
+			return new ModResourceIndex(entry.files());
+		}
+
+		ModResourceIndex index;
+
+		try {
+			index = ModResourceIndex.build(root);
+		} catch (IOException e) {
+			LOGGER.warn("Failed to index resources at {} in {}", root, archive, e);
+			usedKeys.remove(key);
+			return null;
+		}
+
+		entries.put(key, new Entry(attributes.size(), lastModified, index.getFiles()));
+		dirty = true;
+		return index;
+	}
+
+	public synchronized void write() {
+		if (!dirty) return;
+
+		Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+
+		try {
+			Files.createDirectories(file.getParent());
+
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+				out.writeInt(FORMAT_VERSION);
+				out.writeInt(usedKeys.size());
+
+				for (String key : usedKeys) {
+					Entry entry = entries.get(key);
+					out.writeUTF(key);
+					out.writeLong(entry.size());
+					out.writeLong(entry.lastModified());
+					out.writeInt(entry.files().length);
+
+					for (String path : entry.files()) {
+						out.writeUTF(path);
+					}
+				}
+			}
+
+			Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			dirty = false;
+		} catch (IOException e) {
+			LOGGER.warn("Failed to save resource index cache to {}", file, e);
+		}
+	}
+
+	private void load() {
+		if (loaded) return;
+		loaded = true;
+
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+			if (in.readInt() != FORMAT_VERSION) return;
+
+			int count = readLength(in);
+
+			for (int i = 0; i < count; i++) {
+				String key = in.readUTF();
+				long size = in.readLong();
+				long lastModified = in.readLong();
+				// Not allocated up front, so that a corrupt length runs into the end of the file instead
+				List<String> files = new ArrayList<>();
+
+				for (int j = readLength(in); j > 0; j--) {
+					files.add(in.readUTF());
+				}
+
+				entries.put(key, new Entry(size, lastModified, files.toArray(String[]::new)));
+			}
+		} catch (NoSuchFileException e) {
+			// Cold start
+		} catch (IOException e) {
+			LOGGER.warn("Failed to read resource index cache from {}, rebuilding it", file, e);
+			entries.clear();
+		}
+	}
+
+	private static int readLength(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0) throw new IOException("Invalid length " + length);
+		return length;
+	}
+
+	/**
+	 * Checks that the root lives in the zip file system opened on the archive, by comparing the archive to the one in the
+	 * {@code jar:<archive uri>!/<path>} URI of the root.
+	 */
+	private static boolean isArchiveRoot(Path archive, Path root) {
+		if (!Files.isRegularFile(archive) || !"jar".equals(root.getFileSystem().provider().getScheme())) return false;
+
+		String uri = root.toUri().getRawSchemeSpecificPart();
+		int separator = uri.lastIndexOf("!/");
+		if (separator < 0) return false;
+
+		try {
+			return Files.isSameFile(Path.of(new URI(uri.substring(0, separator))), archive);
+		} catch (IOException | URISyntaxException | IllegalArgumentException | FileSystemNotFoundException e) {
+			return false;
+		}
+	}
+
+	@Nullable
+	private static Path getArchive(ModContainer mod) {
+		ModOrigin origin;
+
+		try {
+			origin = mod.getOrigin();
+		} catch (UnsupportedOperationException e) {
+			return null;
+		}
+
+		if (origin.getKind() != ModOrigin.Kind.PATH) return null;
+
+		List<Path> paths = origin.getPaths();
+
+		// Mods loaded from directories may change at any time, and are not cached
+		if (paths.size() != 1 || !Files.isRegularFile(paths.get(0))) return null;
+
+		return paths.get(0).toAbsolutePath().normalize();
+	}
+
+	private record Entry(long size, long lastModified, String[] files) {
+	}
+}
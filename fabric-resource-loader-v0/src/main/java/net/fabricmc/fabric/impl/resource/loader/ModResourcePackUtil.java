@@ -86,6 +86,8 @@ public final class ModResourcePackUtil {
 				packs.add(pack);
 			}
 		}
+
+		ModResourceIndexCache.save();
 	}
 
 	public static void refreshAutoEnabledPacks(List<Pack> enabledProfiles, Map<String, Pack> allProfiles) {
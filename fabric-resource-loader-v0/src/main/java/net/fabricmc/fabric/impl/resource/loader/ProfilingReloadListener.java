@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.resource.loader;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+
+import net.fabricmc.fabric.api.resource.IdentifiableResourceReloadListener;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.resources.ResourceManager;
+import net.minecraft.util.profiling.ProfilerFiller;
+
+/**
+ * Measures the stages of a listener for a {@link ReloadProfiler}: the time spent in tasks the listener runs on the executors before and after
+ * reaching the preparation barrier, and the time between reaching the barrier and being released from it.
+ */
+final class ProfilingReloadListener implements IdentifiableResourceReloadListener {
+	private final IdentifiableResourceReloadListener delegate;
+	private final ReloadProfiler profiler;
+
+	ProfilingReloadListener(IdentifiableResourceReloadListener delegate, ReloadProfiler profiler) {
+		this.delegate = delegate;
+		this.profiler = profiler;
+	}
+
+	@Override
+	public CompletableFuture<Void> reload(PreparationBarrier barrier, ResourceManager manager, ProfilerFiller prepareProfiler, ProfilerFiller applyProfiler, Executor prepareExecutor, Executor applyExecutor) {
+		LongAdder prepareNanos = new LongAdder();
+		LongAdder applyNanos = new LongAdder();
+		long[] barrierTimes = new long[2];
+		boolean[] barrierReached = new boolean[1];
+
+		PreparationBarrier profiledBarrier = new PreparationBarrier() {
+			@Override
+			public <T> CompletableFuture<T> wait(T value) {
+				synchronized (barrierTimes) {
+					barrierReached[0] = true;
+					barrierTimes[0] = System.nanoTime();
+				}
+
+				return barrier.wait(value).whenComplete((result, throwable) -> {
+					synchronized (barrierTimes) {
+						barrierTimes[1] = System.nanoTime();
+					}
+				});
+			}
+		};
+
+		Executor profiledPrepareExecutor = task -> prepareExecutor.execute(() -> timed(task, barrierTimes, barrierReached, prepareNanos, applyNanos));
+		Executor profiledApplyExecutor = task -> applyExecutor.execute(() -> timed(task, barrierTimes, barrierReached, prepareNanos, applyNanos));
+
+		long start = System.nanoTime();
+		CompletableFuture<Void> future = delegate.reload(profiledBarrier, manager, prepareProfiler, applyProfiler, profiledPrepareExecutor, profiledApplyExecutor);
+		prepareNanos.add(System.nanoTime() - start);
+
+		return future.whenComplete((result, throwable) -> {
+			long barrierWaitNanos;
+
+			synchronized (barrierTimes) {
+				barrierWaitNanos = barrierTimes[1] > barrierTimes[0] ? barrierTimes[1] - barrierTimes[0] : 0L;
+			}
+
+			profiler.complete(new ReloadProfiler.ListenerProfile(getFabricId(), ReloadProfiler.getOwningMod(getFabricId()), prepareNanos.sum(), applyNanos.sum(), barrierWaitNanos));
+		});
+	}
+
+	private static void timed(Runnable task, Object lock, boolean[] barrierReached, LongAdder prepareNanos, LongAdder applyNanos) {
+		boolean applying;
+
+		synchronized (lock) {
+			applying = barrierReached[0];
+		}
+
+		long start = System.nanoTime();
+
+		try {
+			task.run();
+		} finally {
+			(applying ? applyNanos : prepareNanos).add(System.nanoTime() - start);
+		}
+	}
+
+	@Override
+	public ResourceLocation getFabricId() {
+		return delegate.getFabricId();
+	}
+
+	@Override
+	public Collection<ResourceLocation> getFabricDependencies() {
+		return delegate.getFabricDependencies();
+	}
+
+	@Override
+	public String getName() {
+		return delegate.getName();
+	}
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.resource.loader;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.PackType;
+
+/**
+ * Records how long the listeners added through {@link ResourceManagerHelperImpl} take during a reload, and reports it once all of them completed.
+ * Enabled with the {@code fabric-api.resource-loader.profile-reloads} system property.
+ *
+ * <p>The report is written to {@code debug/fabric-reload-<type>.json} in the game directory, replacing the one of the previous reload of the same
+ * type, and every listener is also emitted as a JFR event. Times are attributed to the listener id, and to the mod whose id is the namespace
+ * of the listener id.
+ */
+public final class ReloadProfiler {
+	public static final boolean ENABLED = Boolean.getBoolean("fabric-api.resource-loader.profile-reloads");
+	private static final Logger LOGGER = LoggerFactory.getLogger(ReloadProfiler.class);
+	private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+	private final PackType type;
+	private final long startTime = System.nanoTime();
+	private final List<ListenerProfile> profiles = new ArrayList<>();
+	private int expectedCount = -1;
+
+	public ReloadProfiler(PackType type) {
+		this.type = type;
+	}
+
+	/**
+	 * Sets the number of listeners that take part in the reload; the report is written once that many listeners completed.
+	 */
+	public synchronized void setExpectedCount(int expectedCount) {
+		this.expectedCount = expectedCount;
+		reportIfDone();
+	}
+
+	synchronized void complete(ListenerProfile profile) {
+		profiles.add(profile);
+
+		ListenerEvent event = new ListenerEvent();
+
+		if (event.isEnabled()) {
+			event.listener = profile.id().toString();
+			event.mod = profile.mod();
+			event.prepareTime = profile.prepareNanos();
+			event.applyTime = profile.applyNanos();
+			event.barrierWaitTime = profile.barrierWaitNanos();
+			event.commit();
+		}
+
+		reportIfDone();
+	}
+
+	private void reportIfDone() {
+		if (expectedCount < 0 || profiles.size() < expectedCount) return;
+
+		long totalNanos = System.nanoTime() - startTime;
+		profiles.sort(Comparator.comparingLong(ListenerProfile::busyNanos).reversed());
+
+		JsonObject report = new JsonObject();
+		report.addProperty("type", type.getDirectory());
+		report.addProperty("totalMillis", toMillis(totalNanos));
+		JsonArray listeners = new JsonArray();
+
+		for (ListenerProfile profile : profiles) {
+			JsonObject listener = new JsonObject();
+			listener.addProperty("id", profile.id().toString());
+			listener.addProperty("mod", profile.mod());
+			listener.addProperty("prepareMillis", toMillis(profile.prepareNanos()));
+			listener.addProperty("applyMillis", toMillis(profile.applyNanos()));
+			listener.addProperty("barrierWaitMillis", toMillis(profile.barrierWaitNanos()));
+			listeners.add(listener);
+		}
+
+		report.add("listeners", listeners);
+
+		if (!profiles.isEmpty()) {
+			ListenerProfile slowest = profiles.getFirst();
+			LOGGER.info("Reloading {} took {} ms, slowest mod listener: {} ({} ms prepare, {} ms apply)", type.getDirectory(), toMillis(totalNanos),
+					slowest.id(), toMillis(slowest.prepareNanos()), toMillis(slowest.applyNanos()));
+		}
+
+		Path file = FabricLoader.getInstance().getGameDir().resolve("debug").resolve("fabric-reload-" + type.getDirectory().toLowerCase(Locale.ROOT) + ".json");
+
+		try {
+			Files.createDirectories(file.getParent());
+
+			try (Writer writer = Files.newBufferedWriter(file)) {
+				GSON.toJson(report, writer);
+			}
+		} catch (IOException e) {
+			LOGGER.warn("Failed to write reload profile to {}", file, e);
+		}
+	}
+
+	static String getOwningMod(ResourceLocation listenerId) {
+		return FabricLoader.getInstance().isModLoaded(listenerId.getNamespace()) ? listenerId.getNamespace() : "unknown";
+	}
+
+	private static double toMillis(long nanos) {
+		return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+	}
+
+	record ListenerProfile(ResourceLocation id, String mod, long prepareNanos, long applyNanos, long barrierWaitNanos) {
+		long busyNanos() {
+			return prepareNanos + applyNanos;
+		}
+	}
+
+	@Name("fabric.ResourceReloadListener")
+	@Label("Resource Reload Listener")
+	@Category({"Minecraft", "Fabric"})
+	private static class ListenerEvent extends Event {
+		@Label("Listener")
+		String listener;
+		@Label("Mod")
+		String mod;
+		@Label("Prepare Time")
+		@Timespan
+		long prepareTime;
+		@Label("Apply Time")
+		@Timespan
+		long applyTime;
+		@Label("Barrier Wait Time")
+		@Timespan
+		long barrierWaitTime;
+	}
+}
@@ -55,6 +55,11 @@ public class ResourceManagerHelperImpl implements ResourceManagerHelper {
 	private static final Map<PackType, ResourceManagerHelperImpl> registryMap = new HashMap<>();
 	private static final Set<Tuple<Component, ModNioResourcePack>> builtinResourcePacks = new HashSet<>();
 	private static final Logger LOGGER = LoggerFactory.getLogger(ResourceManagerHelperImpl.class);
+	/**
+	 * Whether the apply stages of added listeners only wait for their dependencies, rather than for the listener sorted before them.
+	 * Off by default, as listeners that do not declare their dependencies may rely on the registration order.
+	 */
+	public static final boolean DEPENDENCY_ORDERED_APPLY = Boolean.getBoolean("fabric-api.resource-loader.dependency-ordered-apply");
 
 	private final Set<ResourceLocation> addedListenerIds = new HashSet<>();
 	private final Set<ListenerFactory> listenerFactories = new LinkedHashSet<>();
@@ -180,6 +185,19 @@ public class ResourceManagerHelperImpl implements ResourceManagerHelper {
 		return listeners;
 	}
 
+	/**
+	 * @return whether the listener was added through {@link ResourceManagerHelper}, as opposed to a vanilla listener
+	 */
+	public static boolean isAddedListener(PreparableReloadListener listener) {
+		for (ResourceManagerHelperImpl helper : registryMap.values()) {
+			if (helper.addedListeners.contains(listener)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
 	protected void sort(List<PreparableReloadListener> listeners) {
 		listeners.removeAll(addedListeners);
 
@@ -191,9 +209,11 @@ public class ResourceManagerHelperImpl implements ResourceManagerHelper {
 
 		final HolderLookup.Provider wrapperLookup = getWrapperLookup(listeners);
 		List<IdentifiableResourceReloadListener> listenersToAdd = Lists.newArrayList();
+		ReloadProfiler profiler = ReloadProfiler.ENABLED ? new ReloadProfiler(type) : null;
 
 		for (ListenerFactory addedListener : listenerFactories) {
-			listenersToAdd.add(addedListener.get(wrapperLookup));
+			IdentifiableResourceReloadListener listener = addedListener.get(wrapperLookup);
+			listenersToAdd.add(profiler != null ? new ProfilingReloadListener(listener, profiler) : listener);
 		}
 
 		addedListeners.clear();
@@ -228,6 +248,10 @@ public class ResourceManagerHelperImpl implements ResourceManagerHelper {
 		for (IdentifiableResourceReloadListener listener : listenersToAdd) {
 			LOGGER.warn("Could not resolve dependencies for listener: " + listener.getFabricId() + "!");
 		}
+
+		if (profiler != null) {
+			profiler.setExpectedCount(addedListeners.size() - listenersToAdd.size());
+		}
 	}
 
 	// A bit of a hack to get the registry, but it works.
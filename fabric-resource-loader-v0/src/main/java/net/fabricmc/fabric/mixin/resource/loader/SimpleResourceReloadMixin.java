@@ -16,17 +16,26 @@
 
 package net.fabricmc.fabric.mixin.resource.loader;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 
+import com.llamalad7.mixinextras.injector.wrapoperation.Operation;
+import com.llamalad7.mixinextras.injector.wrapoperation.WrapOperation;
+import com.llamalad7.mixinextras.sugar.Local;
+import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.ModifyArg;
 import org.spongepowered.asm.mixin.injection.Redirect;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.packs.PackType;
 import net.minecraft.server.packs.resources.PreparableReloadListener;
 import net.minecraft.server.packs.resources.ProfiledReloadInstance;
@@ -35,11 +44,16 @@ import net.minecraft.server.packs.resources.ResourceManager;
 import net.minecraft.server.packs.resources.SimpleReloadInstance;
 import net.minecraft.util.Unit;
 
+import net.fabricmc.fabric.api.resource.IdentifiableResourceReloadListener;
 import net.fabricmc.fabric.impl.resource.loader.FabricLifecycledResourceManager;
 import net.fabricmc.fabric.impl.resource.loader.ResourceManagerHelperImpl;
 
 @Mixin(SimpleReloadInstance.class)
 public class SimpleResourceReloadMixin {
+	@Shadow
+	@Final
+	protected CompletableFuture<Unit> allPreparations;
+
 	@Unique
 	private static final ThreadLocal<PackType> fabric_resourceType = new ThreadLocal<>();
 
@@ -63,4 +77,58 @@ public class SimpleResourceReloadMixin {
 		fabric_resourceType.set(null);
 		return new ProfiledReloadInstance(manager, sorted, prepareExecutor, applyExecutor, initialStage);
 	}
+
+	@Unique
+	private final Map<ResourceLocation, CompletableFuture<?>> fabric_listenerFutures = new HashMap<>();
+	@Unique
+	private CompletableFuture<?> fabric_lastVanillaFuture;
+
+	/**
+	 * The apply stage of a listener waits for all listeners to be prepared and for the listener before it to complete.
+	 * For listeners added through Fabric, which all come after the vanilla ones, this waits for the last vanilla listener
+	 * and the declared dependencies instead, so that work a listener does after the barrier only waits on what it depends on.
+	 */
+	@WrapOperation(method = "<init>", at = @At(value = "INVOKE", target = "Lnet/minecraft/server/packs/resources/SimpleReloadInstance$StateFactory;create(Lnet/minecraft/server/packs/resources/PreparableReloadListener$PreparationBarrier;Lnet/minecraft/server/packs/resources/ResourceManager;Lnet/minecraft/server/packs/resources/PreparableReloadListener;Ljava/util/concurrent/Executor;Ljava/util/concurrent/Executor;)Ljava/util/concurrent/CompletableFuture;"))
+	private CompletableFuture<?> waitForDependencies(SimpleReloadInstance.StateFactory<?> factory, PreparableReloadListener.PreparationBarrier barrier, ResourceManager manager, PreparableReloadListener listener, Executor prepareExecutor, Executor applyExecutor, Operation<CompletableFuture<?>> original, @Local(argsOnly = true) CompletableFuture<Unit> alsoWaitedFor) {
+		if (ResourceManagerHelperImpl.DEPENDENCY_ORDERED_APPLY && ResourceManagerHelperImpl.isAddedListener(listener)) {
+			barrier = fabric_dependencyBarrier(barrier, listener, fabric_lastVanillaFuture != null ? fabric_lastVanillaFuture : alsoWaitedFor);
+		}
+
+		CompletableFuture<?> future = original.call(factory, barrier, manager, listener, prepareExecutor, applyExecutor);
+
+		if (!ResourceManagerHelperImpl.isAddedListener(listener)) {
+			fabric_lastVanillaFuture = future;
+		}
+
+		if (listener instanceof IdentifiableResourceReloadListener identifiable) {
+			fabric_listenerFutures.put(identifiable.getFabricId(), future);
+		}
+
+		return future;
+	}
+
+	@Unique
+	private PreparableReloadListener.PreparationBarrier fabric_dependencyBarrier(PreparableReloadListener.PreparationBarrier barrier, PreparableReloadListener listener, CompletableFuture<?> lastVanillaFuture) {
+		List<CompletableFuture<?>> awaited = new ArrayList<>();
+		awaited.add(lastVanillaFuture);
+
+		for (ResourceLocation dependency : ((IdentifiableResourceReloadListener) listener).getFabricDependencies()) {
+			CompletableFuture<?> future = fabric_listenerFutures.get(dependency);
+
+			if (future != null) {
+				awaited.add(future);
+			}
+		}
+
+		CompletableFuture<Void> dependencies = CompletableFuture.allOf(awaited.toArray(CompletableFuture[]::new));
+
+		return new PreparableReloadListener.PreparationBarrier() {
+			@Override
+			public <T> CompletableFuture<T> wait(T value) {
+				// Still marks the listener as prepared; only the returned future, which also waits for the previous listener, is replaced
+				barrier.wait(value);
+				return allPreparations.thenCombine(dependencies, (unit, ignored) -> value);
+			}
+		};
+	}
 }
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.fabricmc.fabric.test.resource.loader.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import net.fabricmc.fabric.impl.resource.loader.ModResourceIndex;
+import net.fabricmc.fabric.impl.resource.loader.ModResourceIndexCache;
+
+public class ModResourceIndexCacheTests {
+	@TempDir
+	Path dir;
+
+	@Test
+	void reusesEntryOfUnchangedJar() throws IOException {
+		Path jar = dir.resolve("mod.jar");
+		Path cacheFile = dir.resolve("cache.bin");
+		FileTime time = writeJar(jar, "data/mod/recipe/a.json", null);
+		index(cacheFile, jar);
+
+		// Same size and modification time, so the stale entry is used
+		writeJar(jar, "data/mod/recipe/b.json", time);
+		ModResourceIndex index = index(cacheFile, jar);
+
+		assertTrue(index.contains("data/mod/recipe/a.json"));
+		assertFalse(index.contains("data/mod/recipe/b.json"));
+	}
+
+	@Test
+	void rebuildsEntryOfModifiedJar() throws IOException {
+		Path jar = dir.resolve("mod.jar");
+		Path cacheFile = dir.resolve("cache.bin");
+		FileTime time = writeJar(jar, "data/mod/recipe/a.json", null);
+		index(cacheFile, jar);
+
+		writeJar(jar, "data/mod/recipe/b.json", FileTime.fromMillis(time.toMillis() + 2000));
+		ModResourceIndex index = index(cacheFile, jar);
+
+		assertFalse(index.contains("data/mod/recipe/a.json"));
+		assertTrue(index.contains("data/mod/recipe/b.json"));
+	}
+
+	@Test
+	void rebuildsCorruptCacheFile() throws IOException {
+		Path jar = dir.resolve("mod.jar");
+		Path cacheFile = dir.resolve("cache.bin");
+		writeJar(jar, "data/mod/recipe/a.json", null);
+		// The format version, followed by a negative entry count
+		Files.write(cacheFile, new byte[] { 0, 0, 0, 1, -1, -1, -1, -1 });
+
+		assertTrue(index(cacheFile, jar).contains("data/mod/recipe/a.json"));
+
+		// Truncated in the middle of an entry
+		byte[] data = Files.readAllBytes(cacheFile);
+		Files.write(cacheFile, Arrays.copyOf(data, data.length - 4));
+
+		assertTrue(index(cacheFile, jar).contains("data/mod/recipe/a.json"));
+	}
+
+	@Test
+	void skipsRootsOutsideJar() throws IOException {
+		Path jar = dir.resolve("mod.jar");
+		Path modDir = Files.createDirectories(dir.resolve("mod"));
+		Files.createDirectories(modDir.resolve("data/mod/recipe"));
+		writeJar(jar, "data/mod/recipe/a.json", null);
+
+		ModResourceIndexCache cache = new ModResourceIndexCache(dir.resolve("cache.bin"));
+
+		// A mod loaded from a directory
+		assertNull(cache.get(modDir, modDir));
+		// A root on another file system than the one of the jar
+		assertNull(cache.get(jar, modDir));
+
+		Path otherJar = dir.resolve("other.jar");
+		writeJar(otherJar, "data/mod/recipe/a.json", null);
+
+		try (FileSystem fs = FileSystems.newFileSystem(URI.create("jar:" + otherJar.toUri()), Map.of())) {
+			assertNull(cache.get(jar, fs.getPath("/")));
+		}
+	}
+
+	/**
+	 * Indexes the jar with a new cache read from the file, as on a new start, and writes the cache back.
+	 */
+	private static ModResourceIndex index(Path cacheFile, Path jar) throws IOException {
+		ModResourceIndexCache cache = new ModResourceIndexCache(cacheFile);
+		ModResourceIndex index;
+
+		try (FileSystem fs = FileSystems.newFileSystem(URI.create("jar:" + jar.toUri()), Map.of())) {
+			index = cache.get(jar, fs.getPath("/"));
+		}
+
+		assertNotNull(index);
+		cache.write();
+		return index;
+	}
+
+	/**
+	 * Writes a jar with a single file. Files with names of the same length give jars of the same size.
+	 *
+	 * @param time the modification time to give the jar, or {@code null} to keep the current time
+	 * @return the modification time of the jar
+	 */
+	private static FileTime writeJar(Path jar, String file, @Nullable FileTime time) throws IOException {
+		Files.deleteIfExists(jar);
+
+		try (FileSystem fs = FileSystems.newFileSystem(URI.create("jar:" + jar.toUri()), Map.of("create", "true"))) {
+			Path path = fs.getPath(file);
+			Files.createDirectories(path.getParent());
+			Files.writeString(path, "{}");
+			Files.setLastModifiedTime(path, FileTime.fromMillis(0));
+		}
+
+		if (time != null) {
+			Files.setLastModifiedTime(jar, time);
+		}
+
+		return Files.getLastModifiedTime(jar);
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.fabricmc.fabric.test.resource.loader.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import net.fabricmc.fabric.impl.resource.loader.ModResourceIndex;
+
+public class ModResourceIndexTests {
+	private static final ModResourceIndex INDEX = new ModResourceIndex(new String[] {
+			"pack.mcmeta",
+			"data/mod/recipe/b.json",
+			"data/mod/recipe/a.json",
+			"data/mod/recipe/nested/c.json",
+			"data/mod/recipes.json",
+			"data/mod/tags/block/d.json",
+			"assets/mod/lang/en_us.json"
+	});
+
+	@Test
+	void listsDirectoryRange() {
+		assertEquals(List.of("data/mod/recipe/a.json", "data/mod/recipe/b.json", "data/mod/recipe/nested/c.json"), list("data/mod/recipe"));
+		assertEquals(List.of("data/mod/recipe/a.json", "data/mod/recipe/b.json", "data/mod/recipe/nested/c.json"), list("data/mod/recipe/"));
+		assertEquals(List.of("data/mod/recipes.json"), list("data/mod/recipes.json"));
+		assertEquals(5, list("data/mod/").size());
+		assertEquals(List.of(), list("data/mod/loot_table"));
+	}
+
+	@Test
+	void coversOnlyIndexedDirectories() {
+		assertTrue(INDEX.covers("pack.mcmeta"));
+		assertTrue(INDEX.covers("data/mod/recipe/a.json"));
+		assertFalse(INDEX.covers("META-INF/neoforge.mods.toml"));
+		assertFalse(INDEX.covers("data/mod/../other/a.json"));
+		assertTrue(INDEX.contains("data/mod/recipe/a.json"));
+		assertFalse(INDEX.contains("data/mod/recipe"));
+	}
+
+	@Test
+	void buildsFromJar(@TempDir Path dir) throws IOException {
+		Path jar = dir.resolve("mod.jar");
+
+		try (FileSystem fs = FileSystems.newFileSystem(URI.create("jar:" + jar.toUri()), Map.of("create", "true"))) {
+			Path root = fs.getPath("/");
+			Files.createDirectories(root.resolve("data/mod/recipe"));
+			Files.createDirectories(root.resolve("net/example"));
+			Files.writeString(root.resolve("data/mod/recipe/a.json"), "{}");
+			Files.writeString(root.resolve("net/example/Mod.class"), "");
+			Files.writeString(root.resolve("pack.mcmeta"), "{}");
+
+			ModResourceIndex index = ModResourceIndex.build(root);
+
+			assertTrue(index.contains("data/mod/recipe/a.json"));
+			assertTrue(index.contains("pack.mcmeta"));
+			assertFalse(index.contains("net/example/Mod.class"));
+		}
+	}
+
+	private static List<String> list(String path) {
+		List<String> files = new ArrayList<>();
+		INDEX.forEachFile(path, files::add);
+		return files;
+	}
+}